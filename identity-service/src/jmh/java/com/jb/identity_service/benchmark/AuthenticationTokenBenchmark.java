@@ -0,0 +1,175 @@
+package com.jb.identity_service.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jb.identity_service.dto.request.IntrospectRequest;
+import com.jb.identity_service.entity.InvalidatedToken;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.service.AuthenticationMetrics;
+import com.jb.identity_service.service.AuthenticationService;
+import com.jb.identity_service.service.ScopeCache;
+import com.jb.identity_service.service.TokenRevocationCache;
+import com.jb.identity_service.service.TokenSigningKeys;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token issue, verification and introspection on {@link AuthenticationService}, wired by hand with in-memory
+ * repositories. Rejected tokens are measured including the {@link AppException} the service throws for them.
+ * {@code algorithm} compares the shared-secret HS512 mode with ES256 signing.
+ *
+ * <p>{@code revocationMisses} picks how an unrevoked token is checked. {@code memory} is the default configuration:
+ * the cache is warmed and pulled before every iteration, standing in for the scheduled sync, so misses are answered
+ * from memory. {@code lookup} is {@code max-staleness: PT0S}, where every miss calls {@code findById}; the stub answers
+ * at once, so this measures the extra work on this side only, not a database round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationTokenBenchmark {
+    private static final String SIGNER_KEY = "XRHPndz7zeYl/OwDx3dXRmWJ6Xj199B//7vb9TtiIDJ2fGl4tkXbgbUnNrtZp2XG";
+    private static final long VALID_DURATION = 3600;
+    private static final long REFRESH_VALID_DURATION = 36000;
+
+    @Param({"HS512", "ES256"})
+    private String algorithm;
+
+    @Param({"memory", "lookup"})
+    private String revocationMisses;
+
+    private TokenSigningKeys signingKeys;
+    private TokenRevocationCache revocationCache;
+    private AuthenticationService authenticationService;
+    private MethodHandle generateToken;
+    private User user;
+    private String validToken;
+    private String expiredToken;
+    private String badSignatureToken;
+    private String revokedToken;
+    private IntrospectRequest introspectRequest;
+
+    @Setup
+    public void setup() throws Throwable {
+        var role = Role.builder()
+                .name("USER")
+                .permissions(Set.of(
+                        Permission.builder().name("READ_DATA").build(),
+                        Permission.builder().name("UPDATE_DATA").build()))
+                .build();
+        var scopeCache = new ScopeCache(
+                RepositoryStubs.roles(List.of(role)),
+                RepositoryStubs.permissionDictionary(List.of(role)),
+                RepositoryStubs.unchangingCatalog(),
+                Duration.ofSeconds(5));
+        revocationCache = new TokenRevocationCache(
+                RepositoryStubs.emptyInvalidatedTokens(),
+                100_000,
+                revocationMisses.equals("memory") ? Duration.ofSeconds(3) : Duration.ZERO,
+                Duration.ofSeconds(10),
+                VALID_DURATION,
+                REFRESH_VALID_DURATION);
+        revocationCache.warmUp();
+
+        // Only the token paths are exercised, so the login collaborators stay unset
+        var metrics = new AuthenticationMetrics(new SimpleMeterRegistry(), revocationCache);
+        signingKeys = new TokenSigningKeys(algorithm, SIGNER_KEY, "", "", true);
+        authenticationService = new AuthenticationService(
+                null, revocationCache, null, null, null, null, null, scopeCache, signingKeys, metrics, null, null, null);
+        ReflectionTestUtils.setField(authenticationService, "VALID_DURATION", VALID_DURATION);
+        ReflectionTestUtils.setField(authenticationService, "REFRESH_VALID_DURATION", REFRESH_VALID_DURATION);
+        generateToken = MethodHandles.privateLookupIn(AuthenticationService.class, MethodHandles.lookup())
+                .findVirtual(
+                        AuthenticationService.class,
+                        "generateToken",
+                        MethodType.methodType(String.class, User.class));
+
+        user = User.builder().username("benchmark-user").roles(Set.of(role)).build();
+        validToken = (String) generateToken.invoke(authenticationService, user);
+        expiredToken = sign(new Date(System.currentTimeMillis() - 60_000));
+        // A genuine signature over different claims, so the rejection pays for the full signature check
+        String otherToken = sign(new Date(System.currentTimeMillis() + VALID_DURATION * 1000));
+        badSignatureToken = validToken.substring(0, validToken.lastIndexOf('.'))
+                + otherToken.substring(otherToken.lastIndexOf('.'));
+        revokedToken = (String) generateToken.invoke(authenticationService, user);
+        var revoked = authenticationService.verifyToken(revokedToken, false).getJWTClaimsSet();
+        revocationCache.revoke(InvalidatedToken.builder()
+                .id(revoked.getJWTID())
+                .expiryTime(revoked.getExpirationTime())
+                .build());
+        introspectRequest = IntrospectRequest.builder().token(validToken).build();
+    }
+
+    /** Iterations last 2 s, within the default 3 s max-staleness, so the cache never goes stale mid-iteration. */
+    @Setup(Level.Iteration)
+    public void sync() {
+        revocationCache.sync();
+    }
+
+    private String sign(Date expirationTime) throws Exception {
+        return signingKeys.sign(new JWTClaimsSet.Builder()
+                .subject("benchmark-user")
+                .issuer("jb.com")
+                .issueTime(new Date(expirationTime.getTime() - VALID_DURATION * 1000))
+                .expirationTime(expirationTime)
+                .jwtID(UUID.randomUUID().toString())
+                .claim("scope", "ROLE_USER READ_DATA UPDATE_DATA")
+                .build());
+    }
+
+    private boolean rejects(String token) throws Exception {
+        try {
+            authenticationService.verifyToken(token, false);
+            return false;
+        } catch (AppException e) {
+            return true;
+        }
+    }
+
+    @Benchmark
+    public String generateToken() throws Throwable {
+        return (String) generateToken.invoke(authenticationService, user);
+    }
+
+    @Benchmark
+    public Object verifyValidToken() throws Exception {
+        return authenticationService.verifyToken(validToken, false);
+    }
+
+    @Benchmark
+    public boolean verifyExpiredToken() throws Exception {
+        return rejects(expiredToken);
+    }
+
+    @Benchmark
+    public boolean verifyBadSignatureToken() throws Exception {
+        return rejects(badSignatureToken);
+    }
+
+    @Benchmark
+    public boolean verifyRevokedToken() throws Exception {
+        return rejects(revokedToken);
+    }
+
+    @Benchmark
+    public boolean introspect() throws Exception {
+        return authenticationService.introspect(introspectRequest).isValid();
+    }
+}
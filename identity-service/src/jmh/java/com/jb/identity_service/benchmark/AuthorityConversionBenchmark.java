@@ -0,0 +1,83 @@
+package com.jb.identity_service.benchmark;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import com.jb.identity_service.config.ScopeAuthoritiesConverter;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.service.ScopeCache;
+
+/**
+ * Authorities for a token whose single role holds {@code permissions} permissions, as converted on every
+ * authenticated request: Spring's converter splitting the full scope string, against
+ * {@link ScopeAuthoritiesConverter} on the same token and on its compact form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorityConversionBenchmark {
+    @Param({"16", "64", "256"})
+    int permissions;
+
+    private JwtGrantedAuthoritiesConverter springConverter;
+    private ScopeAuthoritiesConverter scopeAuthoritiesConverter;
+    private Jwt fullScopeJwt;
+    private Jwt compactJwt;
+
+    @Setup
+    public void setup() {
+        List<Role> catalog = List.of(Role.builder()
+                .name("ADMIN")
+                .permissions(IntStream.range(0, permissions)
+                        .mapToObj(p -> Permission.builder()
+                                .name("PERMISSION_" + p)
+                                .build())
+                        .collect(Collectors.toSet()))
+                .build());
+        var dictionary = RepositoryStubs.permissionDictionary(catalog);
+        var scopeCache = new ScopeCache(
+                RepositoryStubs.roles(catalog), dictionary, RepositoryStubs.unchangingCatalog(), Duration.ofSeconds(5));
+        var compactScope = scopeCache.compactScopeFor(List.of("ADMIN")).orElseThrow();
+
+        springConverter = new JwtGrantedAuthoritiesConverter();
+        springConverter.setAuthorityPrefix("");
+        scopeAuthoritiesConverter = new ScopeAuthoritiesConverter(dictionary);
+        fullScopeJwt = jwt().claim("scope", scopeCache.scopeFor(List.of("ADMIN"))).build();
+        compactJwt = jwt().claim("scope", compactScope.scope())
+                .claim("perms", compactScope.permissions())
+                .claim("pv", compactScope.dictionaryVersion())
+                .build();
+    }
+
+    private static Jwt.Builder jwt() {
+        return Jwt.withTokenValue("token").header("alg", "HS512").subject("benchmark-user");
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> springConverterFullScope() {
+        return springConverter.convert(fullScopeJwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> cachedConverterFullScope() {
+        return scopeAuthoritiesConverter.convert(fullScopeJwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> cachedConverterCompactScope() {
+        return scopeAuthoritiesConverter.convert(compactJwt);
+    }
+}
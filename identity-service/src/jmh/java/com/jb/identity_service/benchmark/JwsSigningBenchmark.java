@@ -0,0 +1,75 @@
+package com.jb.identity_service.benchmark;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Per-call MACSigner/MACVerifier construction (as AuthenticationService used to do) against shared
+ * instances built once from the decoded key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwsSigningBenchmark {
+    private static final String SIGNER_KEY = "XRHPndz7zeYl/OwDx3dXRmWJ6Xj199B//7vb9TtiIDJ2fGl4tkXbgbUnNrtZp2XG";
+
+    private JWSSigner sharedSigner;
+    private JWSVerifier sharedVerifier;
+    private Payload payload;
+    private String token;
+
+    @Setup
+    public void setup() throws JOSEException {
+        byte[] key = SIGNER_KEY.getBytes();
+        sharedSigner = new MACSigner(key);
+        sharedVerifier = new MACVerifier(key);
+        payload = new Payload(new JWTClaimsSet.Builder()
+                .subject("admin")
+                .issuer("jb.com")
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + 3_600_000))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("scope", "ROLE_ADMIN CREATE_DATA UPDATE_DATA")
+                .build()
+                .toJSONObject());
+        token = sign(sharedSigner);
+    }
+
+    private String sign(JWSSigner signer) throws JOSEException {
+        JWSObject jwsObject = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), payload);
+        jwsObject.sign(signer);
+        return jwsObject.serialize();
+    }
+
+    @Benchmark
+    public String signPerCallSigner() throws JOSEException {
+        return sign(new MACSigner(SIGNER_KEY.getBytes()));
+    }
+
+    @Benchmark
+    public String signSharedSigner() throws JOSEException {
+        return sign(sharedSigner);
+    }
+
+    @Benchmark
+    public boolean verifyPerCallVerifier() throws Exception {
+        return SignedJWT.parse(token).verify(new MACVerifier(SIGNER_KEY.getBytes()));
+    }
+
+    @Benchmark
+    public boolean verifySharedVerifier() throws Exception {
+        return SignedJWT.parse(token).verify(sharedVerifier);
+    }
+}
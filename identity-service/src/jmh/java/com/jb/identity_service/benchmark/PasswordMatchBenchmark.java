@@ -0,0 +1,34 @@
+package com.jb.identity_service.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.jb.identity_service.config.CalibratedPasswordEncoder;
+
+/** One BCrypt {@code matches} per login, at the configured cost and the ones around it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordMatchBenchmark {
+    @Param({"8", "10", "12"})
+    int strength;
+
+    private CalibratedPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new CalibratedPasswordEncoder(strength, Map.of());
+        hash = encoder.encode("password123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("password123", hash);
+    }
+}
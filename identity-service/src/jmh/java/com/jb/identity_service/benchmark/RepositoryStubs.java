@@ -0,0 +1,89 @@
+package com.jb.identity_service.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.PermissionSlot;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.repository.CatalogVersionRepository;
+import com.jb.identity_service.repository.InvalidatedTokenRepository;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.PermissionSlotRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.service.PermissionDictionary;
+
+/** In-memory repositories for benchmarks, so the measured code never waits on a database. */
+final class RepositoryStubs {
+    private RepositoryStubs() {}
+
+    /** No revoked tokens are stored; saves are accepted and dropped. */
+    static InvalidatedTokenRepository emptyInvalidatedTokens() {
+        return (InvalidatedTokenRepository) Proxy.newProxyInstance(
+                InvalidatedTokenRepository.class.getClassLoader(),
+                new Class<?>[] {InvalidatedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllByExpiryTimeAfter", "findAllByRevokedAtAfter" -> List.of();
+                    case "findById" -> Optional.empty();
+                    case "save" -> args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /** Answers every role lookup with the given roles. */
+    static RoleRepository roles(List<Role> roles) {
+        return (RoleRepository) Proxy.newProxyInstance(
+                RoleRepository.class.getClassLoader(),
+                new Class<?>[] {RoleRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findWithPermissionsByNameIn" -> roles;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /** The shared role catalog version never moves. */
+    static CatalogVersionRepository unchangingCatalog() {
+        return (CatalogVersionRepository) Proxy.newProxyInstance(
+                CatalogVersionRepository.class.getClassLoader(),
+                new Class<?>[] {CatalogVersionRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findVersion" -> Optional.of(0L);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /** A dictionary numbering the permissions of the given roles, with its slots kept in memory. */
+    static PermissionDictionary permissionDictionary(List<Role> roles) {
+        List<Permission> permissions = roles.stream()
+                .flatMap(role -> role.getPermissions().stream())
+                .toList();
+        var permissionRepository = (PermissionRepository) Proxy.newProxyInstance(
+                PermissionRepository.class.getClassLoader(),
+                new Class<?>[] {PermissionRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> permissions;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        List<PermissionSlot> slots = new CopyOnWriteArrayList<>();
+        var slotRepository = (PermissionSlotRepository) Proxy.newProxyInstance(
+                PermissionSlotRepository.class.getClassLoader(),
+                new Class<?>[] {PermissionSlotRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> List.copyOf(slots);
+                    case "findMaxBitIndex" -> slots.size() - 1;
+                    case "insert" -> {
+                        slots.add(PermissionSlot.builder()
+                                .bitIndex((Integer) args[0])
+                                .name((String) args[1])
+                                .build());
+                        yield 1;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        var dictionary = new PermissionDictionary(permissionRepository, slotRepository);
+        dictionary.assignSlots();
+        return dictionary;
+    }
+}
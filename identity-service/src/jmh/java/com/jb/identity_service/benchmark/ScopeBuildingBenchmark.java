@@ -0,0 +1,65 @@
+package com.jb.identity_service.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.service.ScopeCache;
+
+/**
+ * Scope strings for a user holding {@code roles} roles of {@code permissionsPerRole} permissions each: built from
+ * the role catalog after an invalidation, and served from {@link ScopeCache} as on every login in between.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScopeBuildingBenchmark {
+    @Param({"1", "4", "16"})
+    int roles;
+
+    @Param({"4", "16", "64"})
+    int permissionsPerRole;
+
+    private ScopeCache scopeCache;
+    private List<String> roleNames;
+
+    @Setup
+    public void setup() {
+        List<Role> catalog = IntStream.range(0, roles)
+                .mapToObj(r -> Role.builder()
+                        .name("ROLE" + r)
+                        .permissions(IntStream.range(0, permissionsPerRole)
+                                .mapToObj(p -> Permission.builder()
+                                        .name("PERMISSION_" + r + "_" + p)
+                                        .build())
+                                .collect(Collectors.toSet()))
+                        .build())
+                .toList();
+        scopeCache = new ScopeCache(
+                RepositoryStubs.roles(catalog),
+                RepositoryStubs.permissionDictionary(catalog),
+                RepositoryStubs.unchangingCatalog(),
+                Duration.ofSeconds(5));
+        roleNames = catalog.stream().map(Role::getName).toList();
+    }
+
+    @Benchmark
+    public String buildScope() {
+        scopeCache.invalidate();
+        return scopeCache.scopeFor(roleNames);
+    }
+
+    @Benchmark
+    public String cachedScope() {
+        return scopeCache.scopeFor(roleNames);
+    }
+}
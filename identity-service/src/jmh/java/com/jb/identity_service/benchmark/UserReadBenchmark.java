@@ -0,0 +1,160 @@
+package com.jb.identity_service.benchmark;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.jb.identity_service.IdentityServiceApplication;
+import com.jb.identity_service.dto.projection.UserRoleRow;
+import com.jb.identity_service.dto.response.UserResponse;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.mapper.UserMapper;
+import com.jb.identity_service.mapper.UserRowAssembler;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+
+/**
+ * Reading {@code pageSize} users, each with two roles of eight permissions, into {@link UserResponse}s against the
+ * in-memory {@code h2} profile: through the user/role projection plus one keyed permission query that
+ * {@code UserService} uses, the single user/role/permission join it used before, the managed entities with lazy roles
+ * and permissions, and those entities fetched with an entity graph. Run with the default {@code -prof gc} to compare
+ * allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserReadBenchmark {
+    private static final int ROLES = 2;
+    private static final int PERMISSIONS_PER_ROLE = 8;
+    private static final String JOINED_ROWS = "select new com.jb.identity_service.dto.projection.UserRoleRow("
+            + "u.id, u.username, u.firstName, u.lastName, u.dateOfBirth,"
+            + " case when u.password is null or u.password = '' then true else false end,"
+            + " r.name, r.description, p.name, p.description)"
+            + " from User u left join u.roles r left join r.permissions p where u.id in :ids order by u.username";
+
+    @Param({"1", "20"})
+    int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private RoleRepository roleRepository;
+    private UserRowAssembler userRowAssembler;
+    private UserMapper userMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private List<String> ids;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(IdentityServiceApplication.class)
+                .profiles("h2")
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        userRowAssembler = context.getBean(UserRowAssembler.class);
+        userMapper = context.getBean(UserMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        var permissionRepository = context.getBean(PermissionRepository.class);
+        roleRepository = context.getBean(RoleRepository.class);
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < ROLES; r++) {
+            int role = r;
+            List<Permission> permissions = IntStream.range(0, PERMISSIONS_PER_ROLE)
+                    .mapToObj(p -> Permission.builder()
+                            .name("BENCH_PERMISSION_" + role + "_" + p)
+                            .description("Benchmark permission " + p)
+                            .build())
+                    .toList();
+            roles.add(roleRepository.save(Role.builder()
+                    .name("BENCH_ROLE_" + role)
+                    .description("Benchmark role " + role)
+                    .permissions(new HashSet<>(permissionRepository.saveAll(permissions)))
+                    .build()));
+        }
+        ids = IntStream.range(0, pageSize)
+                .mapToObj(i -> userRepository
+                        .save(User.builder()
+                                .username("bench%04d".formatted(i))
+                                .password("hash")
+                                .firstName("Bench")
+                                .lastName("User " + i)
+                                .roles(roles)
+                                .build())
+                        .getId())
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserResponse> projection() {
+        return readOnly.execute(status -> {
+            List<UserRoleRow> rows = userRepository.findRowsByIdIn(ids);
+            Set<String> roleNames =
+                    rows.stream().map(UserRoleRow::roleName).filter(Objects::nonNull).collect(Collectors.toSet());
+            return userRowAssembler.toUserResponses(rows, roleRepository.findPermissionRowsByRoleNameIn(roleNames));
+        });
+    }
+
+    @Benchmark
+    public List<UserResponse> joinedProjection() {
+        return readOnly.execute(status -> userRowAssembler.toUserResponses(entityManager
+                .createQuery(JOINED_ROWS, UserRoleRow.class)
+                .setParameter("ids", ids)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<UserResponse> lazyEntities() {
+        return readOnly.execute(status ->
+                userRepository.findAllById(ids).stream().map(this::toUserResponse).toList());
+    }
+
+    @Benchmark
+    public List<UserResponse> entityGraph() {
+        return readOnly.execute(status -> {
+            EntityGraph<User> graph = entityManager.createEntityGraph(User.class);
+            graph.addSubgraph("roles").addAttributeNodes("permissions");
+            return entityManager
+                    .createQuery("select u from User u where u.id in :ids", User.class)
+                    .setParameter("ids", ids)
+                    .setHint("jakarta.persistence.fetchgraph", graph)
+                    .getResultList()
+                    .stream()
+                    .map(this::toUserResponse)
+                    .toList();
+        });
+    }
+
+    private UserResponse toUserResponse(User user) {
+        var userResponse = userMapper.toUserResponse(user);
+        userResponse.setNoPassword(!StringUtils.hasText(user.getPassword()));
+        return userResponse;
+    }
+}
@@ -68,6 +68,13 @@ public class ApplicationInitConfig {
                 userRepository.save(user);
                 log.info("Admin user created with username: {}", user.getUsername());
             }
+            // Also added to databases seeded before the role existed; an admin grants it to gateway service accounts
+            if (!roleRepository.existsById(PredefinedRole.GATEWAY_ROLE)) {
+                roleRepository.save(Role.builder()
+                        .name(PredefinedRole.GATEWAY_ROLE)
+                        .description("Gateway clients allowed to call POST /auth/introspect/batch")
+                        .build());
+            }
         };
     }
 }
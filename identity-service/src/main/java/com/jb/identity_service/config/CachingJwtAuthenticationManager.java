@@ -0,0 +1,155 @@
+package com.jb.identity_service.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.service.AuthenticationMetrics;
+import com.jb.identity_service.service.TokenRevocationCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Authenticates bearer tokens through {@link JwtAuthenticationProvider} and keeps each resulting
+ * {@link JwtAuthenticationToken} until the token's {@code exp}, keyed by the token's SHA-256. A token presented again
+ * skips parsing, signature verification and authority conversion; only the revocation check is repeated. A
+ * revocation on this node also drops the entry at once.
+ *
+ * <p>Hits and misses are counted as {@code cache.gets} with {@code cache=authentication}, as Micrometer's own cache
+ * binders do, so hit rates chart the same way.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+    static final String CACHE_NAME = "authentication";
+    // When every entry is live, this fraction of max-entries is dropped to make room for new tokens
+    static final int EVICTION_BATCH_DIVISOR = 10;
+
+    JwtAuthenticationProvider delegate;
+    TokenRevocationCache tokenRevocationCache;
+    AuthenticationMetrics metrics;
+    ConcurrentHashMap<String, JwtAuthenticationToken> authentications = new ConcurrentHashMap<>();
+    int maxEntries;
+    Counter hits;
+    Counter misses;
+    Counter evictions;
+
+    public CachingJwtAuthenticationManager(
+            CustomJwtDecoder customJwtDecoder,
+            ScopeAuthoritiesConverter scopeAuthoritiesConverter,
+            TokenRevocationCache tokenRevocationCache,
+            AuthenticationMetrics metrics,
+            MeterRegistry meterRegistry,
+            @Value("${security.authentication-cache.max-entries:10000}") int maxEntries) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(scopeAuthoritiesConverter);
+        this.delegate = new JwtAuthenticationProvider(customJwtDecoder);
+        delegate.setJwtAuthenticationConverter(converter);
+        this.tokenRevocationCache = tokenRevocationCache;
+        this.metrics = metrics;
+        this.maxEntries = maxEntries;
+        this.hits = cacheGets(meterRegistry, "hit");
+        this.misses = cacheGets(meterRegistry, "miss");
+        this.evictions = Counter.builder("cache.evictions")
+                .description("Authentications dropped to stay within max-entries")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", authentications, ConcurrentHashMap::size)
+                .description("Authentications held until their token expires")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        tokenRevocationCache.onRevoke(this::evict);
+    }
+
+    private static Counter cacheGets(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.gets")
+                .description("Bearer token authentications answered from, or missing in, the cache")
+                .tag("cache", CACHE_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        var bearer = (BearerTokenAuthenticationToken) authentication;
+        if (maxEntries <= 0) {
+            return delegate.authenticate(bearer);
+        }
+        String key = sha256(bearer.getToken());
+        JwtAuthenticationToken cached = authentications.get(key);
+        if (cached != null) {
+            var jwt = cached.getToken();
+            if (jwt.getExpiresAt().toEpochMilli() > System.currentTimeMillis()
+                    && !tokenRevocationCache.isRevoked(jwt.getId())) {
+                hits.increment();
+                // Counted with the decoder's outcomes, so the resource flow covers every accepted request
+                metrics.outcome(CustomJwtDecoder.FLOW, "valid");
+                // A copy, so the details of this request never leak into another one
+                var copy = new JwtAuthenticationToken(jwt, cached.getAuthorities(), cached.getName());
+                copy.setDetails(bearer.getDetails());
+                return copy;
+            }
+            authentications.remove(key, cached);
+        }
+
+        misses.increment();
+        var result = (JwtAuthenticationToken) delegate.authenticate(bearer);
+        if (authentications.size() >= maxEntries) {
+            evictExpired();
+        }
+        if (authentications.size() < maxEntries && result.getToken().getExpiresAt() != null) {
+            authentications.put(key, result);
+        }
+        return result;
+    }
+
+    private void evict(String tokenId) {
+        authentications
+                .values()
+                .removeIf(cached -> tokenId.equals(cached.getToken().getId()));
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = authentications.size();
+        authentications
+                .values()
+                .removeIf(cached -> cached.getToken().getExpiresAt().toEpochMilli() <= now);
+        if (authentications.size() >= maxEntries) {
+            // Every entry is live; drop a small batch rather than lock out newer tokens or empty the cache. Keys are
+            // SHA-256 digests, so iteration order picks the victims at random
+            int batch = Math.max(1, maxEntries / EVICTION_BATCH_DIVISOR);
+            var keys = authentications.keySet().iterator();
+            for (int i = 0; i < batch && keys.hasNext(); i++) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        evictions.increment(Math.max(0, before - authentications.size()));
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.jb.identity_service.config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * BCrypt encoder with a single target cost. Hashes of any cost still match, and {@link #upgradeEncoding}
+ * reports every hash whose cost differs from the target (higher or lower) so it can be re-hashed on the
+ * next successful login.
+ */
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final Map<Integer, Duration> timings;
+
+    public CalibratedPasswordEncoder(int strength, Map<Integer, Duration> timings) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timings = Collections.unmodifiableMap(new TreeMap<>(timings));
+    }
+
+    /**
+     * Picks the highest cost between {@code minStrength} and {@code maxStrength} whose hash time on this host
+     * stays within {@code targetLatency}. Each extra cost doubles the work, so measuring stops at the first
+     * cost over the target.
+     */
+    public static CalibratedPasswordEncoder calibrate(int minStrength, int maxStrength, Duration targetLatency) {
+        Map<Integer, Duration> timings = new TreeMap<>();
+        int chosen = minStrength;
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD); // warm up
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            Duration elapsed = measure(cost);
+            timings.put(cost, elapsed);
+            if (elapsed.compareTo(targetLatency) > 0) {
+                break;
+            }
+            chosen = cost;
+        }
+        log.info("Calibrated BCrypt cost {} for target {} (timings: {})", chosen, targetLatency, timings);
+        return new CalibratedPasswordEncoder(chosen, timings);
+    }
+
+    private static Duration measure(int cost) {
+        var encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /** Measured hash time per cost; empty when the strength was configured rather than calibrated. */
+    public Map<Integer, Duration> getTimings() {
+        return timings;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -1,43 +1,79 @@
 package com.jb.identity_service.config;
 
-import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.util.Set;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Component;
 
-import com.jb.identity_service.dto.request.IntrospectRequest;
-import com.jb.identity_service.service.AuthenticationService;
+import com.jb.identity_service.service.AuthenticationMetrics;
+import com.jb.identity_service.service.TokenRevocationCache;
+import com.jb.identity_service.service.TokenSigningKeys;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decodes the bearer tokens of resource requests. Its stages and outcomes are recorded under the {@code resource}
+ * flow of {@link AuthenticationMetrics}, next to the {@code verify} flow of the auth endpoints.
+ */
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
-    @Value("${jwt.signerKey}")
-    private String SIGNER_KEY;
+    static final String FLOW = "resource";
+
+    private final NimbusJwtDecoder nimbusJwtDecoder;
+    private final TokenRevocationCache tokenRevocationCache;
+    private final AuthenticationMetrics metrics;
 
-    @Autowired
-    private AuthenticationService authenticationService;
+    public CustomJwtDecoder(
+            TokenSigningKeys signingKeys, TokenRevocationCache tokenRevocationCache, AuthenticationMetrics metrics) {
+        // HS512 tokens only match the HMAC secret and ES256 tokens only the EC key with their kid, so both are
+        // accepted while tokens issued before a switch of jwt.signing.algorithm run out
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+                Set.of(JWSAlgorithm.HS512, JWSAlgorithm.ES256), signingKeys.verificationKeys()));
+        // Claims are checked by the validator below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        this.nimbusJwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        // Same strict expiry check as AuthenticationService.verifyToken, without the default 60s skew
+        this.nimbusJwtDecoder.setJwtValidator(new JwtTimestampValidator(Duration.ZERO));
+        this.tokenRevocationCache = tokenRevocationCache;
+        this.metrics = metrics;
+    }
 
     @Override
     public Jwt decode(String token) throws JwtException {
+        Timer.Sample sample = metrics.start();
+        Jwt jwt;
         try {
-            var response = authenticationService.introspect(
-                    IntrospectRequest.builder().token(token).build());
-            if (!response.isValid()) {
-                throw new JwtException("Invalid JWT token");
-            }
-        } catch (Exception e) {
-            throw new JwtException("Invalid JWT token", e);
+            jwt = nimbusJwtDecoder.decode(token);
+        } catch (JwtValidationException e) {
+            // Only the timestamp validator is configured
+            metrics.outcome(FLOW, "expired");
+            throw e;
+        } catch (JwtException e) {
+            metrics.outcome(FLOW, "invalid");
+            throw e;
+        } finally {
+            metrics.stop(sample, FLOW, "decode");
         }
-
-        SecretKeySpec secretKeySpec = new SecretKeySpec(SIGNER_KEY.getBytes(), "HS512");
-        var nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(secretKeySpec)
-                .macAlgorithm(MacAlgorithm.HS512)
-                .build();
-        return nimbusJwtDecoder.decode(token);
+        if (jwt.getId() == null) {
+            metrics.outcome(FLOW, "malformed");
+            throw new JwtException("Invalid JWT token");
+        }
+        if (metrics.record(FLOW, "revocation-lookup", () -> tokenRevocationCache.isRevoked(jwt.getId()))) {
+            metrics.outcome(FLOW, "revoked");
+            throw new JwtException("Invalid JWT token");
+        }
+        metrics.outcome(FLOW, "valid");
+        return jwt;
     }
 }
@@ -0,0 +1,62 @@
+package com.jb.identity_service.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bulkhead and circuit breaker settings for the Feign clients. Every client gets its own instance, named after
+ * the client, so a slow token endpoint cannot exhaust the permits of userinfo. Connect and read timeouts are set
+ * per client under {@code spring.cloud.openfeign.client.config}.
+ */
+@Configuration
+public class OutboundClientConfig {
+
+    @Bean
+    BulkheadRegistry outboundBulkheadRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${outbound.resilience.bulkhead.max-concurrent-calls:50}") int maxConcurrentCalls,
+            @Value("${outbound.resilience.bulkhead.max-wait:0ms}") Duration maxWait) {
+        var registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    CircuitBreakerRegistry outboundCircuitBreakerRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${outbound.resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${outbound.resilience.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+            @Value("${outbound.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${outbound.resilience.circuit-breaker.slow-call-duration:2s}") Duration slowCallDuration,
+            @Value("${outbound.resilience.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${outbound.resilience.circuit-breaker.wait-in-open-state:30s}") Duration waitInOpenState) {
+        var registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                // A 5xx from Google is as much a failure as a timeout
+                .recordResult(result -> result instanceof Response response && response.status() >= 500)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
@@ -0,0 +1,62 @@
+package com.jb.identity_service.config;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps every Feign client in a semaphore bulkhead and then a circuit breaker, both keyed by the client name.
+ * A call that is refused, times out or cannot connect surfaces as {@link ErrorCode#OUTBOUND_SERVICE_UNAVAILABLE}
+ * instead of holding the request thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OutboundResilienceCapability implements Capability {
+    BulkheadRegistry bulkheadRegistry;
+    CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String name = request.requestTemplate().feignTarget().name();
+            CheckedSupplier<Response> call = () -> client.execute(request, options);
+            // Bulkhead outermost, so calls it turns away are not counted as circuit breaker failures
+            CheckedSupplier<Response> guarded = Bulkhead.decorateCheckedSupplier(
+                    bulkheadRegistry.bulkhead(name),
+                    CircuitBreaker.decorateCheckedSupplier(circuitBreakerRegistry.circuitBreaker(name), call));
+            try {
+                return guarded.get();
+            } catch (BulkheadFullException | CallNotPermittedException e) {
+                log.warn("{} call rejected: {}", name, e.getMessage());
+                throw new AppException(ErrorCode.OUTBOUND_SERVICE_UNAVAILABLE);
+            } catch (IOException e) {
+                log.warn("{} call failed: {}", name, e.toString());
+                throw new AppException(ErrorCode.OUTBOUND_SERVICE_UNAVAILABLE);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
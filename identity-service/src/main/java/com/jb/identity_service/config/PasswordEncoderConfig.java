@@ -0,0 +1,41 @@
+package com.jb.identity_service.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${security.password-hashing.calibration.enabled:false}") boolean calibrate,
+            @Value("${security.password-hashing.calibration.target-latency:250ms}") Duration targetLatency,
+            @Value("${security.password-hashing.calibration.min-strength:8}") int minStrength,
+            @Value("${security.password-hashing.calibration.max-strength:14}") int maxStrength) {
+        var encoder = calibrate
+                ? CalibratedPasswordEncoder.calibrate(minStrength, maxStrength, targetLatency)
+                : new CalibratedPasswordEncoder(strength, Map.of());
+
+        Gauge.builder("password.hash.strength", encoder::getStrength)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+        encoder.getTimings().forEach((cost, elapsed) -> TimeGauge.builder(
+                        "password.hash.calibration", elapsed, TimeUnit.NANOSECONDS, Duration::toNanos)
+                .description("BCrypt hash time measured at startup")
+                .tag("cost", String.valueOf(cost))
+                .register(meterRegistry));
+        return encoder;
+    }
+}
@@ -0,0 +1,68 @@
+package com.jb.identity_service.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.service.PermissionDictionary;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Authorities from the {@code scope} claim plus, on compact tokens, the permissions of the {@code perms} bitset.
+ * Tokens of the same role set carry the same claims, so converted authorities are cached by claim values and a
+ * request no longer splits the scope string.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ScopeAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+    static final int MAX_ENTRIES = 10_000;
+
+    PermissionDictionary permissionDictionary;
+    ConcurrentHashMap<ClaimValues, CachedAuthorities> authorities = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        String scope = jwt.getClaimAsString("scope");
+        String permissions = jwt.getClaimAsString("perms");
+        Number dictionaryVersion = jwt.getClaim("pv");
+        var key = new ClaimValues(scope, permissions, dictionaryVersion == null ? 0 : dictionaryVersion.intValue());
+        // Compact entries are only valid for the dictionary snapshot they were expanded with
+        PermissionDictionary.Snapshot dictionary =
+                permissions == null ? null : permissionDictionary.atLeast(key.dictionaryVersion());
+        CachedAuthorities cached = authorities.get(key);
+        if (cached != null && cached.dictionary() == dictionary) {
+            return cached.authorities();
+        }
+
+        List<GrantedAuthority> converted = new ArrayList<>();
+        if (scope != null && !scope.isBlank()) {
+            for (String authority : scope.split(" ")) {
+                converted.add(new SimpleGrantedAuthority(authority));
+            }
+        }
+        if (dictionary != null) {
+            dictionary.decode(permissions).forEach(name -> converted.add(new SimpleGrantedAuthority(name)));
+        }
+        List<GrantedAuthority> result = List.copyOf(converted);
+        if (authorities.size() >= MAX_ENTRIES) {
+            authorities.clear();
+        }
+        authorities.put(key, new CachedAuthorities(dictionary, result));
+        return result;
+    }
+
+    private record ClaimValues(String scope, String permissions, int dictionaryVersion) {}
+
+    private record CachedAuthorities(PermissionDictionary.Snapshot dictionary, List<GrantedAuthority> authorities) {}
+}
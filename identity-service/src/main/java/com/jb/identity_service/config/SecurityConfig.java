@@ -2,6 +2,9 @@ package com.jb.identity_service.config;
 
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,10 +13,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -24,15 +23,27 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    private final CustomJwtDecoder customJwtDecoder;
+    private final CachingJwtAuthenticationManager cachingJwtAuthenticationManager;
+    private final int serverPort;
+    private final int managementPort;
+
+    // Probed by the orchestrator; health details stay hidden from anonymous callers
+    private static final String[] HEALTH_ENDPOINTS = {"/actuator/health/**"};
+
+    // Fetched by resource servers to verify tokens and expand their permissions locally
+    private static final String[] KEY_ENDPOINTS = {"/.well-known/jwks.json", "/permissions/dictionary"};
 
     private static final String[] PUBLIC_ENDPOINTS = {
-        "/users", "/auth/token", "/auth/introspect", "/auth/logout", "/auth/refresh",
-            "/auth/outbound/authentication"
+        "/users", "/auth/token", "/auth/introspect", "/auth/logout", "/auth/refresh", "/auth/outbound/authentication"
     };
 
-    public SecurityConfig(CustomJwtDecoder customJwtDecoder) {
-        this.customJwtDecoder = customJwtDecoder;
+    public SecurityConfig(
+            CachingJwtAuthenticationManager cachingJwtAuthenticationManager,
+            @Value("${server.port:8080}") int serverPort,
+            @Value("${management.server.port:-1}") int managementPort) {
+        this.cachingJwtAuthenticationManager = cachingJwtAuthenticationManager;
+        this.serverPort = serverPort;
+        this.managementPort = managementPort;
     }
 
     @Bean
@@ -48,16 +59,30 @@ public class SecurityConfig {
                         // Cho phép các endpoint public (không thêm context-path ở đây)
                         .requestMatchers(HttpMethod.POST, PUBLIC_ENDPOINTS)
                         .permitAll()
+                        .requestMatchers(HttpMethod.GET, HEALTH_ENDPOINTS)
+                        .permitAll()
+                        // Scraped by Prometheus without a token, but only on the separate management port
+                        .requestMatchers(this::isPrometheusScrape)
+                        .permitAll()
+                        .requestMatchers(HttpMethod.GET, KEY_ENDPOINTS)
+                        .permitAll()
                         .anyRequest()
                         .authenticated());
-        http.oauth2ResourceServer(oauth2 -> oauth2.jwt(jwtConfigurer -> jwtConfigurer
-                        .decoder(customJwtDecoder)
-                        .jwtAuthenticationConverter(jwtAuthenticationConverter()))
+        http.oauth2ResourceServer(oauth2 -> oauth2.jwt(
+                        jwtConfigurer -> jwtConfigurer.authenticationManager(cachingJwtAuthenticationManager))
                 .authenticationEntryPoint(new JwtAuthenticationEntryPoint()));
 
         return http.build();
     }
 
+    private boolean isPrometheusScrape(HttpServletRequest request) {
+        return managementPort > 0
+                && managementPort != serverPort
+                && request.getLocalPort() == managementPort
+                && HttpMethod.GET.matches(request.getMethod())
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
@@ -70,18 +95,4 @@ public class SecurityConfig {
         source.registerCorsConfiguration("/**", config);
         return source;
     }
-
-    @Bean
-    JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-        jwtGrantedAuthoritiesConverter.setAuthorityPrefix("");
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwtGrantedAuthoritiesConverter);
-        return converter;
-    }
-
-    @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
-    }
 }
@@ -3,6 +3,7 @@ package com.jb.identity_service.constant;
 public class PredefinedRole {
     public static final String ADMIN_ROLE = "ADMIN";
     public static final String USER_ROLE = "USER";
+    public static final String GATEWAY_ROLE = "GATEWAY";
 
     private PredefinedRole() {} // Private constructor to prevent instantiation
 }
@@ -2,14 +2,19 @@ package com.jb.identity_service.controller;
 
 import java.text.ParseException;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
 import org.springframework.web.bind.annotation.*;
 
 import com.jb.identity_service.dto.request.AuthenticationRequest;
+import com.jb.identity_service.dto.request.BatchIntrospectRequest;
 import com.jb.identity_service.dto.request.IntrospectRequest;
 import com.jb.identity_service.dto.request.LogoutRequest;
 import com.jb.identity_service.dto.request.RefreshRequest;
 import com.jb.identity_service.dto.response.ApiResponse;
 import com.jb.identity_service.dto.response.AuthenticationResponse;
+import com.jb.identity_service.dto.response.BatchIntrospectResponse;
 import com.jb.identity_service.dto.response.IntrospectResponse;
 import com.jb.identity_service.service.AuthenticationService;
 import com.nimbusds.jose.JOSEException;
@@ -33,9 +38,10 @@ public class AuthenticationController {
     }
 
     @PostMapping("/token")
-    ApiResponse<AuthenticationResponse> login(@RequestBody AuthenticationRequest request) {
+    ApiResponse<AuthenticationResponse> login(
+            @RequestBody AuthenticationRequest request, HttpServletRequest httpServletRequest) {
         return ApiResponse.<AuthenticationResponse>builder()
-                .result(authenticationService.isAuthenticated(request))
+                .result(authenticationService.isAuthenticated(request, httpServletRequest.getRemoteAddr()))
                 .build();
     }
 
@@ -55,6 +61,14 @@ public class AuthenticationController {
                 .build();
     }
 
+    @PostMapping("/introspect/batch")
+    ApiResponse<BatchIntrospectResponse> introspectAll(
+            @RequestBody @Valid BatchIntrospectRequest request, HttpServletRequest httpServletRequest) {
+        return ApiResponse.<BatchIntrospectResponse>builder()
+                .result(authenticationService.introspectAll(request.getTokens(), httpServletRequest.getRemoteAddr()))
+                .build();
+    }
+
     @PostMapping("/logout")
     ApiResponse<Void> logout(@RequestBody LogoutRequest request) throws ParseException, JOSEException {
         authenticationService.logout(request);
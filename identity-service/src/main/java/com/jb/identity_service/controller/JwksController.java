@@ -0,0 +1,39 @@
+package com.jb.identity_service.controller;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.jb.identity_service.service.TokenSigningKeys;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Publishes the token verification keys as a plain JWK set, so resource servers verify tokens themselves instead
+ * of calling {@code /auth/introspect}. Not wrapped in {@code ApiResponse}: JWKS clients expect the bare document.
+ */
+@RestController
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JwksController {
+    TokenSigningKeys signingKeys;
+    CacheControl cacheControl;
+
+    public JwksController(
+            TokenSigningKeys signingKeys, @Value("${jwt.signing.jwks-max-age:PT15M}") Duration jwksMaxAge) {
+        this.signingKeys = signingKeys;
+        this.cacheControl = CacheControl.maxAge(jwksMaxAge).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(signingKeys.publicKeys().toJSONObject());
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.*;
 
 import com.jb.identity_service.dto.request.PermissionRequest;
 import com.jb.identity_service.dto.response.ApiResponse;
+import com.jb.identity_service.dto.response.PermissionDictionaryResponse;
 import com.jb.identity_service.dto.response.PermissionResponse;
 import com.jb.identity_service.service.PermissionService;
 
@@ -36,6 +37,13 @@ public class PermissionController {
                 .build();
     }
 
+    @GetMapping("/dictionary")
+    public ApiResponse<PermissionDictionaryResponse> getDictionary() {
+        return ApiResponse.<PermissionDictionaryResponse>builder()
+                .result(permissionService.getDictionary())
+                .build();
+    }
+
     @DeleteMapping("/{id}")
     public ApiResponse<String> deletePermission(@PathVariable String id) {
         permissionService.deletePermission(id);
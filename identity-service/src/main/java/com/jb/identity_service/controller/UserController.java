@@ -1,17 +1,33 @@
 package com.jb.identity_service.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
 
-import com.jb.identity_service.dto.request.PasswordCreationRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.jb.identity_service.dto.request.PasswordCreationRequest;
 import com.jb.identity_service.dto.request.UserCreationRequest;
 import com.jb.identity_service.dto.request.UserUpdateRequest;
 import com.jb.identity_service.dto.response.ApiResponse;
+import com.jb.identity_service.dto.response.PageResponse;
+import com.jb.identity_service.dto.response.UserImportResponse;
 import com.jb.identity_service.dto.response.UserResponse;
+import com.jb.identity_service.enums.ExportFormat;
+import com.jb.identity_service.service.UserExportService;
+import com.jb.identity_service.service.UserImportService;
 import com.jb.identity_service.service.UserService;
 
 import lombok.AccessLevel;
@@ -25,20 +41,56 @@ import lombok.extern.slf4j.Slf4j;
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    static final String EXPORT_TIMEOUT_INTERCEPTOR = "users-export-timeout";
+
     UserService userService;
+    UserExportService userExportService;
+    UserImportService userImportService;
 
     @GetMapping
-    public ApiResponse<List<UserResponse>> getAllUsers() {
+    public ApiResponse<PageResponse<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String usernamePrefix) {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         authentication
                 .getAuthorities()
                 .forEach(authority ->
                         log.info("User {} has authority: {}", authentication.getName(), authority.getAuthority()));
-        return ApiResponse.<List<UserResponse>>builder()
-                .result(userService.getAllUsers())
+        return ApiResponse.<PageResponse<UserResponse>>builder()
+                .result(userService.getAllUsers(cursor, size, role, usernamePrefix))
+                .build();
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ApiResponse<UserImportResponse> importUsers(InputStream body) throws IOException {
+        return ApiResponse.<UserImportResponse>builder()
+                .result(userImportService.importUsers(body))
                 .build();
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format, HttpServletRequest request) {
+        StreamingResponseBody body = userExportService.exportUsers(format);
+        // Only this request gets the long timeout; it is applied just before the body starts streaming
+        long timeoutMillis = userExportService.getTimeout().toMillis();
+        WebAsyncUtils.getAsyncManager(request)
+                .registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR, new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        ((AsyncWebRequest) webRequest).setTimeout(timeoutMillis);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"))
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/my-info")
     public ApiResponse<UserResponse> getMyInfo() {
         return ApiResponse.<UserResponse>builder()
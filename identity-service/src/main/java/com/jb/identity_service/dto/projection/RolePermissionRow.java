@@ -0,0 +1,4 @@
+package com.jb.identity_service.dto.projection;
+
+/** One row of the role → permission join, read for the roles of the {@link UserRoleRow}s being assembled. */
+public record RolePermissionRow(String roleName, String permissionName, String permissionDescription) {}
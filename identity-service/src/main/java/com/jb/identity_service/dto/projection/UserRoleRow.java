@@ -0,0 +1,33 @@
+package com.jb.identity_service.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the flattened user → role → permission join. A user with R roles of P permissions each comes
+ * back as R·P rows (or one row with null role columns when it has no roles). Rows read without permission columns
+ * come back one per role, with the permissions read separately as {@link RolePermissionRow}s.
+ */
+public record UserRoleRow(
+        String id,
+        String username,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        boolean noPassword,
+        String roleName,
+        String roleDescription,
+        String permissionName,
+        String permissionDescription) {
+
+    public UserRoleRow(
+            String id,
+            String username,
+            String firstName,
+            String lastName,
+            LocalDate dateOfBirth,
+            boolean noPassword,
+            String roleName,
+            String roleDescription) {
+        this(id, username, firstName, lastName, dateOfBirth, noPassword, roleName, roleDescription, null, null);
+    }
+}
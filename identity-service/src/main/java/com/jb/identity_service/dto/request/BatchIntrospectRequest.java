@@ -0,0 +1,20 @@
+package com.jb.identity_service.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchIntrospectRequest {
+    @NotNull(message = "INTROSPECT_BATCH_INVALID")
+    @Size(min = 1, max = 500, message = "INTROSPECT_BATCH_INVALID")
+    List<String> tokens;
+}
@@ -2,6 +2,7 @@ package com.jb.identity_service.dto.request;
 
 import java.time.LocalDate;
 
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import com.jb.identity_service.validator.DobConstraint;
@@ -18,6 +19,7 @@ public class UserCreationRequest {
     @Size(min = 5, message = "USERNAME_INVALID")
     String username;
 
+    @NotNull(message = "PASSWORD_REQUIRED")
     @Size(min = 5, message = "PASSWORD_INVALID")
     String password;
 
@@ -0,0 +1,16 @@
+package com.jb.identity_service.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchIntrospectResponse {
+    // Same order as the request's tokens
+    List<TokenIntrospection> results;
+}
@@ -1,8 +1,8 @@
 package com.jb.identity_service.dto.response;
 
-
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -14,8 +14,9 @@ import lombok.experimental.FieldDefaults;
 @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
 public class ExchangeTokenResponse {
     String accessToken;
-    Long   expiresIn;
+    Long expiresIn;
     String refreshToken;
     String scope;
     String tokenType;
+    String idToken;
 }
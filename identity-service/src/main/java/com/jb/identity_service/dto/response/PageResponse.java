@@ -0,0 +1,18 @@
+package com.jb.identity_service.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PageResponse<T> {
+    List<T> items;
+
+    // Opaque; pass back as ?cursor= to get the next page. Null on the last page.
+    String nextCursor;
+}
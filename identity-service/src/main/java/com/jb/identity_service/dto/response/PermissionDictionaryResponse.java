@@ -0,0 +1,18 @@
+package com.jb.identity_service.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PermissionDictionaryResponse {
+    // Decodes every token whose pv claim is at most this
+    int version;
+    // Indexed by bit position
+    List<String> permissions;
+}
@@ -0,0 +1,23 @@
+package com.jb.identity_service.dto.response;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+    boolean valid;
+
+    // Only set for a valid token
+    String subject;
+    String scope;
+    Instant expiresAt;
+}
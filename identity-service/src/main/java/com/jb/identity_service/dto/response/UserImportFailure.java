@@ -0,0 +1,16 @@
+package com.jb.identity_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserImportFailure {
+    long line;
+    String username;
+    int code;
+    String message;
+}
@@ -0,0 +1,19 @@
+package com.jb.identity_service.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserImportResponse {
+    long imported;
+    long failed;
+
+    // Capped; failed counts every rejected line
+    List<UserImportFailure> failures;
+}
@@ -3,8 +3,6 @@ package com.jb.identity_service.dto.response;
 import java.time.LocalDate;
 import java.util.Set;
 
-import com.jb.identity_service.entity.Role;
-
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -20,5 +18,5 @@ public class UserResponse {
     String lastName;
     LocalDate dateOfBirth;
     boolean noPassword;
-    Set<Role> roles;
+    Set<RoleResponse> roles;
 }
@@ -0,0 +1,22 @@
+package com.jb.identity_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class CatalogVersion {
+
+    @Id
+    String name;
+
+    long version;
+}
@@ -4,6 +4,8 @@ import java.util.Date;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -15,10 +17,18 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
+@Table(
+        indexes = {
+            @Index(name = "idx_invalidated_token_expiry_time", columnList = "expiryTime"),
+            @Index(name = "idx_invalidated_token_revoked_at", columnList = "revokedAt")
+        })
 public class InvalidatedToken {
 
     @Id
     String id;
 
     Date expiryTime;
+
+    // Null on rows stored before the column existed; those are only picked up by a warm-up
+    Date revokedAt;
 }
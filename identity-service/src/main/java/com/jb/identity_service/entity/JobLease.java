@@ -0,0 +1,25 @@
+package com.jb.identity_service.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class JobLease {
+
+    @Id
+    String name;
+
+    Instant lockedUntil;
+    String lockedBy;
+}
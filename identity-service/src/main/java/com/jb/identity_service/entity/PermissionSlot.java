@@ -0,0 +1,25 @@
+package com.jb.identity_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/** A permission's bit in the compact {@code perms} token claim. Rows are only ever added, never changed. */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class PermissionSlot {
+
+    @Id
+    Integer bitIndex;
+
+    @Column(unique = true, nullable = false)
+    String name;
+}
@@ -5,6 +5,8 @@ import java.util.Set;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
+
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -30,5 +32,11 @@ public class User {
     LocalDate dateOfBirth;
 
     @ManyToMany
+    @JoinTable(
+            name = "user_roles",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "roles_name"),
+            indexes = @Index(name = "idx_user_roles_roles_name", columnList = "roles_name"))
+    @BatchSize(size = 100)
     Set<Role> roles;
 }
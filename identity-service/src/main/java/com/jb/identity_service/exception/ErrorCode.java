@@ -18,6 +18,22 @@ public enum ErrorCode {
     UNAUTHORIZED(1006, "User is not authorized", HttpStatus.FORBIDDEN),
     DOB_INVALID(1007, "Your age must be at least {min}", HttpStatus.BAD_REQUEST),
     PASSWORD_ALREADY_CREATED(1008, "Password has already been created", HttpStatus.BAD_REQUEST),
+    PASSWORD_HASHING_BUSY(1009, "Server is busy, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
+    TOO_MANY_LOGIN_ATTEMPTS(1010, "Too many login attempts, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    INVALID_CURSOR(1011, "Invalid page cursor", HttpStatus.BAD_REQUEST),
+    IMPORT_LINE_MALFORMED(1012, "Line is not a valid user JSON object", HttpStatus.BAD_REQUEST),
+    OUTBOUND_SERVICE_UNAVAILABLE(
+            1013, "Sign-in provider is unavailable, please try again later", HttpStatus.SERVICE_UNAVAILABLE),
+    // Fixed wording: a missing tokens list carries no min/max attributes to fill in
+    INTROSPECT_BATCH_INVALID(1014, "Batch must contain between 1 and 500 tokens", HttpStatus.BAD_REQUEST),
+    INTROSPECT_BATCH_THROTTLED(
+            1015, "Too many introspection batches, please try again later", HttpStatus.TOO_MANY_REQUESTS),
+    PASSWORD_REQUIRED(1016, "Password is required", HttpStatus.BAD_REQUEST),
+    IMPORT_LINE_INVALID(1017, "Line failed validation", HttpStatus.BAD_REQUEST),
+    IMPORT_CHUNK_FAILED(
+            1018,
+            "Could not store the chunk holding this line; none of its lines were imported",
+            HttpStatus.INTERNAL_SERVER_ERROR),
     ;
 
     private final int code;
@@ -4,6 +4,7 @@ import java.util.Map;
 
 import jakarta.validation.ConstraintViolation;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,6 +16,7 @@ import com.jb.identity_service.dto.response.ApiResponse;
 @ControllerAdvice
 public class GlobalExceptionHandler {
     private static final String MIN_ATTRIBUTE = "min";
+    private static final String MAX_ATTRIBUTE = "max";
 
     @ExceptionHandler(value = Exception.class)
     ResponseEntity<ApiResponse> handleRuntimeException(RuntimeException e) {
@@ -43,6 +45,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(errorCode.getStatusCode()).body(response);
     }
 
+    @ExceptionHandler(value = LoginThrottledException.class)
+    ResponseEntity<ApiResponse> handleLoginThrottledException(LoginThrottledException e) {
+        ErrorCode errorCode = e.getErrorCode();
+        ApiResponse response = new ApiResponse();
+        response.setCode(errorCode.getCode());
+        response.setMessage(errorCode.getMessage());
+        return ResponseEntity.status(errorCode.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     @ExceptionHandler(value = MethodArgumentNotValidException.class)
     ResponseEntity<ApiResponse> handleValidationException(MethodArgumentNotValidException e) {
         String enumKey = e.getFieldError().getDefaultMessage();
@@ -55,10 +68,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
-    private String mapAttibute(String message, Map<String, Object> attributes) {
-        if (attributes.containsKey(MIN_ATTRIBUTE)) {
-            return message.replace(
-                    "{" + MIN_ATTRIBUTE + "}", attributes.get(MIN_ATTRIBUTE).toString());
+    public static String mapAttibute(String message, Map<String, Object> attributes) {
+        for (String attribute : new String[] {MIN_ATTRIBUTE, MAX_ATTRIBUTE}) {
+            if (attributes.containsKey(attribute)) {
+                message = message.replace(
+                        "{" + attribute + "}", attributes.get(attribute).toString());
+            }
         }
         return message;
     }
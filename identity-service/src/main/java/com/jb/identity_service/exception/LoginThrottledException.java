@@ -0,0 +1,18 @@
+package com.jb.identity_service.exception;
+
+public class LoginThrottledException extends AppException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        this(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS, retryAfterSeconds);
+    }
+
+    public LoginThrottledException(ErrorCode errorCode, long retryAfterSeconds) {
+        super(errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -9,7 +9,7 @@ import com.jb.identity_service.dto.request.UserUpdateRequest;
 import com.jb.identity_service.dto.response.UserResponse;
 import com.jb.identity_service.entity.User;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = RoleMapper.class)
 public interface UserMapper {
     User toUser(UserCreationRequest request);
 
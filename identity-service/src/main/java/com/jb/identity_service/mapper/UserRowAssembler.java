@@ -0,0 +1,97 @@
+package com.jb.identity_service.mapper;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.dto.projection.RolePermissionRow;
+import com.jb.identity_service.dto.projection.UserRoleRow;
+import com.jb.identity_service.dto.response.PermissionResponse;
+import com.jb.identity_service.dto.response.RoleResponse;
+import com.jb.identity_service.dto.response.UserResponse;
+
+/** Folds flattened {@link UserRoleRow}s back into one {@link UserResponse} per user, keeping row order. */
+@Component
+public class UserRowAssembler {
+
+    public List<UserResponse> toUserResponses(List<UserRoleRow> rows) {
+        return toUserResponses(rows, Map.of());
+    }
+
+    /** Folds rows read without permission columns, taking each role's permissions from {@code permissions}. */
+    public List<UserResponse> toUserResponses(List<UserRoleRow> rows, List<RolePermissionRow> permissions) {
+        Map<String, List<PermissionResponse>> permissionsByRole = new HashMap<>();
+        for (RolePermissionRow permission : permissions) {
+            permissionsByRole
+                    .computeIfAbsent(permission.roleName(), name -> new ArrayList<>())
+                    .add(PermissionResponse.builder()
+                            .name(permission.permissionName())
+                            .description(permission.permissionDescription())
+                            .build());
+        }
+        return toUserResponses(rows, permissionsByRole);
+    }
+
+    public Optional<UserResponse> toUserResponse(List<UserRoleRow> rows, List<RolePermissionRow> permissions) {
+        return toUserResponses(rows, permissions).stream().findFirst();
+    }
+
+    private List<UserResponse> toUserResponses(
+            List<UserRoleRow> rows, Map<String, List<PermissionResponse>> permissionsByRole) {
+        Map<String, UserResponse> users = new LinkedHashMap<>();
+        Map<String, Map<String, RoleResponse>> rolesByUser = new HashMap<>();
+        for (UserRoleRow row : rows) {
+            users.computeIfAbsent(row.id(), id -> UserResponse.builder()
+                    .id(row.id())
+                    .username(row.username())
+                    .firstName(row.firstName())
+                    .lastName(row.lastName())
+                    .dateOfBirth(row.dateOfBirth())
+                    .noPassword(row.noPassword())
+                    .roles(new LinkedHashSet<>())
+                    .build());
+            if (row.roleName() == null) {
+                continue;
+            }
+            RoleResponse role = rolesByUser
+                    .computeIfAbsent(row.id(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(row.roleName(), name -> RoleResponse.builder()
+                            .name(row.roleName())
+                            .description(row.roleDescription())
+                            .permissions(new LinkedHashSet<>(permissionsByRole.getOrDefault(row.roleName(), List.of())))
+                            .build());
+            if (row.permissionName() != null) {
+                role.getPermissions()
+                        .add(PermissionResponse.builder()
+                                .name(row.permissionName())
+                                .description(row.permissionDescription())
+                                .build());
+            }
+        }
+        // Roles go into the hash-based set only once their permissions are complete
+        rolesByUser.forEach((id, roles) -> users.get(id).setRoles(new LinkedHashSet<>(roles.values())));
+        return new ArrayList<>(users.values());
+    }
+
+    public Optional<UserResponse> toUserResponse(List<UserRoleRow> rows) {
+        return toUserResponses(rows).stream().findFirst();
+    }
+
+    /**
+     * Streams users one at a time from rows that arrive grouped by user id, holding only the current user's
+     * rows in memory.
+     */
+    public void forEachUser(Stream<UserRoleRow> rows, Consumer<UserResponse> action) {
+        List<UserRoleRow> current = new ArrayList<>();
+        rows.forEachOrdered(row -> {
+            if (!current.isEmpty() && !current.getFirst().id().equals(row.id())) {
+                toUserResponse(current).ifPresent(action);
+                current.clear();
+            }
+            current.add(row);
+        });
+        toUserResponse(current).ifPresent(action);
+    }
+}
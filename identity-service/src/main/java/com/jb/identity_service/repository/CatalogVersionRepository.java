@@ -0,0 +1,27 @@
+package com.jb.identity_service.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jb.identity_service.entity.CatalogVersion;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+    @Query("select v.version from CatalogVersion v where v.name = :name")
+    Optional<Long> findVersion(String name);
+
+    @Transactional
+    @Modifying
+    @Query("update CatalogVersion v set v.version = v.version + 1 where v.name = :name")
+    int increment(String name);
+
+    @Transactional
+    @Modifying
+    @Query(value = "insert into catalog_version (name, version) values (:name, 1)", nativeQuery = true)
+    int insert(String name);
+}
@@ -1,9 +1,22 @@
 package com.jb.identity_service.repository;
 
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.jb.identity_service.entity.InvalidatedToken;
 
 @Repository
-public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {}
+public interface InvalidatedTokenRepository extends JpaRepository<InvalidatedToken, String> {
+    List<InvalidatedToken> findAllByExpiryTimeAfter(Date expiryTime, Limit limit);
+
+    List<InvalidatedToken> findAllByRevokedAtAfter(Date revokedAt, Limit limit);
+
+    @Query("select t.id from InvalidatedToken t where t.expiryTime < :expiryTime")
+    List<String> findIdsByExpiryTimeBefore(Date expiryTime, Pageable pageable);
+}
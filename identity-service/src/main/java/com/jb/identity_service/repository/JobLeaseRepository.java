@@ -0,0 +1,32 @@
+package com.jb.identity_service.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jb.identity_service.entity.JobLease;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.lockedUntil = :lockedUntil, l.lockedBy = :owner"
+            + " where l.name = :name and (l.lockedUntil < :now or l.lockedBy = :owner)")
+    int tryAcquire(String name, String owner, Instant now, Instant lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query(
+            value = "insert into job_lease (name, locked_by, locked_until) values (:name, :owner, :lockedUntil)",
+            nativeQuery = true)
+    int insert(String name, String owner, Instant lockedUntil);
+
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :owner")
+    int release(String name, String owner, Instant now);
+}
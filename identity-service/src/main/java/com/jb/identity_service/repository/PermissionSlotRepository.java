@@ -0,0 +1,21 @@
+package com.jb.identity_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.jb.identity_service.entity.PermissionSlot;
+
+@Repository
+public interface PermissionSlotRepository extends JpaRepository<PermissionSlot, Integer> {
+    @Query("select coalesce(max(s.bitIndex), -1) from PermissionSlot s")
+    int findMaxBitIndex();
+
+    // A plain insert rather than save, whose merge would overwrite a slot another node took meanwhile
+    @Transactional
+    @Modifying
+    @Query(value = "insert into permission_slot (bit_index, name) values (:bitIndex, :name)", nativeQuery = true)
+    int insert(int bitIndex, String name);
+}
@@ -1,9 +1,23 @@
 package com.jb.identity_service.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.jb.identity_service.dto.projection.RolePermissionRow;
 import com.jb.identity_service.entity.Role;
 
 @Repository
-public interface RoleRepository extends JpaRepository<Role, String> {}
+public interface RoleRepository extends JpaRepository<Role, String> {
+    @EntityGraph(attributePaths = "permissions")
+    List<Role> findWithPermissionsByNameIn(Collection<String> names);
+
+    /** One row per permission of the given roles, keyed by role name, without hydrating entities. */
+    @Query("select new com.jb.identity_service.dto.projection.RolePermissionRow(r.name, p.name, p.description)"
+            + " from Role r join r.permissions p where r.name in :roleNames")
+    List<RolePermissionRow> findPermissionRowsByRoleNameIn(Collection<String> roleNames);
+}
@@ -0,0 +1,109 @@
+package com.jb.identity_service.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import com.jb.identity_service.dto.projection.UserRoleRow;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Streams every user row for {@code GET /users/export} through its own small pool, named {@code export}. On MySQL
+ * only this pool sets {@code useCursorFetch}, so the fetch size streams through a server-side cursor while the
+ * shared pools keep client-side statements. Reads from {@code users.export.jdbc-url} if set, else the first replica
+ * when routing is on, else {@code spring.datasource}.
+ */
+@Repository
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserExportRepository {
+    static final String MYSQL_URL_PREFIX = "jdbc:mysql:";
+    static final String USE_CURSOR_FETCH = "useCursorFetch";
+    static final int FETCH_SIZE = 1000;
+    static final String ALL_ROWS = "select u.id, u.username, u.first_name, u.last_name, u.date_of_birth,"
+            + " u.password is null or u.password = '', r.name, r.description, p.name, p.description"
+            + " from user u"
+            + " left join user_roles ur on ur.user_id = u.id"
+            + " left join role r on r.name = ur.roles_name"
+            + " left join role_permissions rp on rp.role_name = r.name"
+            + " left join permission p on p.name = rp.permissions_name"
+            + " order by u.username, u.id, r.name, p.name";
+
+    static final RowMapper<UserRoleRow> ROW_MAPPER = (rs, rowNum) -> new UserRoleRow(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getObject(5, LocalDate.class),
+            rs.getBoolean(6),
+            rs.getString(7),
+            rs.getString(8),
+            rs.getString(9),
+            rs.getString(10));
+
+    HikariDataSource dataSource;
+    JdbcTemplate jdbcTemplate;
+
+    public UserExportRepository(
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${users.export.jdbc-url:}") String exportUrl,
+            @Value("${datasource.routing.enabled:false}") boolean routingEnabled,
+            @Value("${datasource.routing.replicas:}") List<String> replicaUrls,
+            @Value("${users.export.pool-size:2}") int poolSize) {
+        String url = exportUrl;
+        if (!StringUtils.hasText(url) && routingEnabled) {
+            url = replicaUrls.stream().filter(StringUtils::hasText).findFirst().orElse(null);
+        }
+        if (!StringUtils.hasText(url)) {
+            url = properties.determineUrl();
+        }
+        this.dataSource = exportPool(url.trim(), properties, poolSize);
+        this.dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /** Opens no connection until the first export; idle connections are closed between exports. */
+    static HikariDataSource exportPool(String url, DataSourceProperties properties, int poolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("export");
+        dataSource.setJdbcUrl(url);
+        if (url.startsWith(MYSQL_URL_PREFIX)) {
+            dataSource.addDataSourceProperty(USE_CURSOR_FETCH, "true");
+        }
+        dataSource.setUsername(properties.determineUsername());
+        dataSource.setPassword(properties.determinePassword());
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Every user row, grouped by user and ordered by username, as {@link UserRoleRow}s. Holds a connection until
+     * the stream is closed.
+     */
+    public Stream<UserRoleRow> streamAllRows() {
+        return jdbcTemplate.queryForStream(ALL_ROWS, ROW_MAPPER);
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+}
@@ -1,15 +1,95 @@
 package com.jb.identity_service.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.jb.identity_service.dto.projection.UserRoleRow;
 import com.jb.identity_service.entity.User;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+    /**
+     * Flat user/role rows read straight into {@link UserRoleRow}, without hydrating entities. Permissions are not
+     * joined in, which would repeat each user and role once per permission; read them with
+     * {@link RoleRepository#findPermissionRowsByRoleNameIn}.
+     */
+    String USER_ROLE_ROWS = "select new com.jb.identity_service.dto.projection.UserRoleRow("
+            + "u.id, u.username, u.firstName, u.lastName, u.dateOfBirth,"
+            + " case when u.password is null or u.password = '' then true else false end,"
+            + " r.name, r.description)"
+            + " from User u left join u.roles r";
+
     boolean existsByUsername(String username);
 
+    /**
+     * Inserts the user unless the username is taken, in one statement. A concurrent insert of the same username
+     * waits on the unique index and then leaves the existing row alone; any other constraint error still fails.
+     * The update count does not say which caller won, so check for {@code id} afterwards.
+     */
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value = "insert into user (id, username, first_name, last_name)"
+                    + " values (:id, :username, :firstName, :lastName)"
+                    + " on duplicate key update id = id")
+    void insertIfAbsent(String id, String username, String firstName, String lastName);
+
+    /** Grants the role only if user {@code userId} exists, i.e. its {@link #insertIfAbsent} won; returns rows added. */
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value = "insert into user_roles (user_id, roles_name) select id, :role from user where id = :userId")
+    int insertRole(String userId, String role);
+
+    /** Replaces the password hash only if it is still {@code oldPassword}; returns 0 when it changed meanwhile. */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int updatePasswordIfUnchanged(String id, String oldPassword, String newPassword);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<String> findExistingIds(Collection<String> ids);
+
     Optional<User> findByUsername(String username);
+
+    /**
+     * Ids of one keyset page ordered by username. {@code usernamePrefix} is a LIKE pattern with {@code !} as
+     * the escape character; any filter may be null. The role is matched in the join condition, so each user joins
+     * at most one row and the page needs no {@code distinct}.
+     */
+    @Query("select u.id from User u left join u.roles r on r.name = :role"
+            + " where (:afterUsername is null or u.username > :afterUsername)"
+            + " and (:usernamePrefix is null or u.username like :usernamePrefix escape '!')"
+            + " and (:role is null or r.name is not null)"
+            + " order by u.username")
+    List<String> findPageIds(String afterUsername, String usernamePrefix, String role, Limit limit);
+
+    @Query(USER_ROLE_ROWS + " where u.username = :username")
+    List<UserRoleRow> findRowsByUsername(String username);
+
+    @Query(USER_ROLE_ROWS + " where u.id = :id")
+    List<UserRoleRow> findRowsById(String id);
+
+    @Query(USER_ROLE_ROWS + " where u.id in :ids order by u.username")
+    List<UserRoleRow> findRowsByIdIn(Collection<String> ids);
+
+    /**
+     * Loads the user with its roles in one query; permissions come from {@code ScopeCache}. Read-only, so a login
+     * outside any transaction reads from a replica; inside a read-write transaction it joins that one.
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Transactional(readOnly = true)
+    Optional<User> findWithRolesByUsername(String username);
 }
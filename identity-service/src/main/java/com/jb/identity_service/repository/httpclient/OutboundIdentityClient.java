@@ -1,13 +1,15 @@
 package com.jb.identity_service.repository.httpclient;
 
-import com.jb.identity_service.dto.request.ExchangeTokenRequest;
-import com.jb.identity_service.dto.response.ExchangeTokenResponse;
-import feign.QueryMap;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 
-@FeignClient(name = "outbound-identity-client", url = "https://oauth2.googleapis.com")
+import com.jb.identity_service.dto.request.ExchangeTokenRequest;
+import com.jb.identity_service.dto.response.ExchangeTokenResponse;
+
+import feign.QueryMap;
+
+@FeignClient(name = "outbound-identity-client", url = "${outbound.identity.token-url:https://oauth2.googleapis.com}")
 public interface OutboundIdentityClient {
     @PostMapping(value = "/token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     ExchangeTokenResponse exchangeToken(@QueryMap ExchangeTokenRequest request);
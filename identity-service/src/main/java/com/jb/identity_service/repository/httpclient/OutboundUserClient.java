@@ -1,11 +1,12 @@
 package com.jb.identity_service.repository.httpclient;
 
-import com.jb.identity_service.dto.response.OutboundUserResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "outbound-user-client", url = "https://www.googleapis.com")
+import com.jb.identity_service.dto.response.OutboundUserResponse;
+
+@FeignClient(name = "outbound-user-client", url = "${outbound.identity.userinfo-url:https://www.googleapis.com}")
 public interface OutboundUserClient {
     @GetMapping(value = "/oauth2/v1/userinfo")
     OutboundUserResponse getUserInfo(@RequestParam("alt") String alt, @RequestParam("access_token") String accessToken);
@@ -0,0 +1,111 @@
+package com.jb.identity_service.scheduler;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.repository.InvalidatedTokenRepository;
+import com.jb.identity_service.service.JobLeaseService;
+import com.jb.identity_service.service.TokenRevocationCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes {@code InvalidatedToken} rows that can no longer match a presentable token, in bounded batches
+ * so that each delete stays a short transaction.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "jwt.invalidated-token-purge", name = "enabled", matchIfMissing = true)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InvalidatedTokenPurgeJob {
+    static final String LEASE_NAME = "invalidated-token-purge";
+
+    InvalidatedTokenRepository invalidatedTokenRepository;
+    TokenRevocationCache tokenRevocationCache;
+    JobLeaseService jobLeaseService;
+    int batchSize;
+    int maxBatches;
+    Duration leaseDuration;
+    Counter deletedCounter;
+    Timer purgeTimer;
+    // Row count at this node's last run, whether or not it held the lease; -1 until then
+    AtomicLong storedRows = new AtomicLong(-1);
+
+    public InvalidatedTokenPurgeJob(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            TokenRevocationCache tokenRevocationCache,
+            JobLeaseService jobLeaseService,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.invalidated-token-purge.batch-size:1000}") int batchSize,
+            @Value("${jwt.invalidated-token-purge.max-batches:100}") int maxBatches,
+            @Value("${jwt.invalidated-token-purge.lease-duration:PT5M}") Duration leaseDuration) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.tokenRevocationCache = tokenRevocationCache;
+        this.jobLeaseService = jobLeaseService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.leaseDuration = leaseDuration;
+        this.deletedCounter = Counter.builder("invalidated.token.purge.deleted")
+                .description("Expired invalidated token rows deleted")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("invalidated.token.purge")
+                .description("Time spent purging expired invalidated tokens")
+                .register(meterRegistry);
+        Gauge.builder("invalidated.token.rows", storedRows, rows -> rows.get() < 0 ? Double.NaN : rows.get())
+                .description("Rows in the invalidated token table, counted every purge interval on every node")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${jwt.invalidated-token-purge.initial-delay:PT1M}",
+            fixedDelayString = "${jwt.invalidated-token-purge.interval:PT10M}")
+    public void purge() {
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, leaseDuration)) {
+            log.debug("Invalidated token purge is running on another node");
+            storedRows.set(invalidatedTokenRepository.count());
+            return;
+        }
+        try {
+            int deleted = purgeTimer.record(this::purgeExpired);
+            deletedCounter.increment(deleted);
+            storedRows.set(invalidatedTokenRepository.count());
+            if (deleted > 0) {
+                log.info("Purged {} expired invalidated tokens", deleted);
+            }
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    int purgeExpired() {
+        Date cutoff = tokenRevocationCache.retentionCutoff();
+        int deleted = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<String> ids =
+                    invalidatedTokenRepository.findIdsByExpiryTimeBefore(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            invalidatedTokenRepository.deleteAllByIdInBatch(ids);
+            deleted += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+}
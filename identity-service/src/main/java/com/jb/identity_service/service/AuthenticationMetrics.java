@@ -0,0 +1,69 @@
+package com.jb.identity_service.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Stage timers and outcome counters for the login, refresh, verify, resource and outbound flows. Every stage timer is named
+ * {@value #STAGE_TIMER} and tagged with its flow and stage; percentiles and histogram buckets for it are set under
+ * {@code management.metrics.distribution}. Outcomes are counted under {@value #OUTCOME_COUNTER}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AuthenticationMetrics {
+    static final String STAGE_TIMER = "auth.stage";
+    static final String OUTCOME_COUNTER = "auth.outcome";
+
+    MeterRegistry meterRegistry;
+    ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public AuthenticationMetrics(MeterRegistry meterRegistry, TokenRevocationCache tokenRevocationCache) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("revocation.cache.size", tokenRevocationCache, TokenRevocationCache::size)
+                .description("Revoked token ids held in memory")
+                .register(meterRegistry);
+        Gauge.builder("revocation.cache.complete", tokenRevocationCache, cache -> cache.answersMisses() ? 1 : 0)
+                .description("1 while a cache miss is answered without a database lookup")
+                .register(meterRegistry);
+    }
+
+    public <T> T record(String flow, String stage, Supplier<T> step) {
+        return timer(flow, stage).record(step);
+    }
+
+    /** For stages that throw checked exceptions: start a sample, then {@link #stop} it when the stage ends. */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String flow, String stage) {
+        sample.stop(timer(flow, stage));
+    }
+
+    public void outcome(String flow, String outcome) {
+        counters.computeIfAbsent(flow + '/' + outcome, key -> Counter.builder(OUTCOME_COUNTER)
+                        .description("Authentication results by flow and outcome")
+                        .tag("flow", flow)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private Timer timer(String flow, String stage) {
+        return timers.computeIfAbsent(flow + '/' + stage, key -> Timer.builder(STAGE_TIMER)
+                .description("Time spent in one stage of an authentication flow")
+                .tag("flow", flow)
+                .tag("stage", stage)
+                .register(meterRegistry));
+    }
+}
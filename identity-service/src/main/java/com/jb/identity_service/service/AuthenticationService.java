@@ -5,28 +5,29 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
-
 import com.jb.identity_service.constant.PredefinedRole;
 import com.jb.identity_service.dto.request.*;
 import com.jb.identity_service.entity.Role;
 import com.jb.identity_service.repository.httpclient.OutboundIdentityClient;
 import com.jb.identity_service.repository.httpclient.OutboundUserClient;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.jb.identity_service.dto.response.AuthenticationResponse;
+import com.jb.identity_service.dto.response.BatchIntrospectResponse;
 import com.jb.identity_service.dto.response.IntrospectResponse;
+import com.jb.identity_service.dto.response.OutboundUserResponse;
+import com.jb.identity_service.dto.response.TokenIntrospection;
 import com.jb.identity_service.entity.InvalidatedToken;
 import com.jb.identity_service.entity.User;
 import com.jb.identity_service.exception.AppException;
 import com.jb.identity_service.exception.ErrorCode;
-import com.jb.identity_service.repository.InvalidatedTokenRepository;
 import com.jb.identity_service.repository.UserRepository;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 
@@ -42,14 +43,19 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class AuthenticationService {
     UserRepository userRepository;
-    InvalidatedTokenRepository invalidatedTokenRepository;
+    TokenRevocationCache tokenRevocationCache;
 
     OutboundIdentityClient outboundIdentityClient;
     OutboundUserClient outboundUserClient;
-
-    @NonFinal
-    @Value("${jwt.signerKey}")
-    private String SIGNER_KEY;
+    GoogleIdTokenVerifier googleIdTokenVerifier;
+    PasswordHashingService passwordHashingService;
+    LoginRateLimiter loginRateLimiter;
+    ScopeCache scopeCache;
+    TokenSigningKeys signingKeys;
+    AuthenticationMetrics metrics;
+    ReadYourWrites readYourWrites;
+    TransactionTemplate transactionTemplate;
+    TokenVerificationExecutor tokenVerificationExecutor;
 
     @NonFinal
     @Value("${jwt.valid-duration}")
@@ -59,6 +65,10 @@ public class AuthenticationService {
     @Value("${jwt.refresh-valid-duration}")
     private long REFRESH_VALID_DURATION;
 
+    @NonFinal
+    @Value("${jwt.scope.compact-permissions:false}")
+    private boolean COMPACT_PERMISSIONS;
+
     @NonFinal
     @Value("${outbound.identity.client-id}")
     private String CLIENT_ID;
@@ -86,53 +96,170 @@ public class AuthenticationService {
         return IntrospectResponse.builder().valid(isValid).build();
     }
 
+    /**
+     * Introspects a batch for a gateway client: parsing, signature and expiry checks run in parallel on
+     * {@link TokenVerificationExecutor}, then the revocation checks for every token that passed are answered together.
+     * Results keep the order of {@code tokens}. Batches are throttled per client like logins.
+     */
+    @PreAuthorize("hasRole('GATEWAY')")
+    public BatchIntrospectResponse introspectAll(List<String> tokens, String clientIp) {
+        loginRateLimiter.acquireIntrospectBatch(
+                SecurityContextHolder.getContext().getAuthentication().getName(), clientIp);
+        List<JWTClaimsSet> verified = metrics.record(
+                "introspect-batch",
+                "signature",
+                () -> tokenVerificationExecutor.verifyAll(tokens, this::verifiedClaims));
+        List<String> tokenIds = verified.stream()
+                .filter(Objects::nonNull)
+                .map(JWTClaimsSet::getJWTID)
+                .toList();
+        Set<String> revoked = metrics.record(
+                "introspect-batch", "revocation-lookup", () -> tokenRevocationCache.revokedAmong(tokenIds));
+
+        List<TokenIntrospection> results = verified.stream()
+                .map(claims -> {
+                    if (claims == null) {
+                        return TokenIntrospection.builder().valid(false).build();
+                    }
+                    if (revoked.contains(claims.getJWTID())) {
+                        metrics.outcome("verify", "revoked");
+                        return TokenIntrospection.builder().valid(false).build();
+                    }
+                    metrics.outcome("verify", "valid");
+                    return TokenIntrospection.builder()
+                            .valid(true)
+                            .subject(claims.getSubject())
+                            .scope(scopeOf(claims))
+                            .expiresAt(claims.getExpirationTime().toInstant())
+                            .build();
+                })
+                .toList();
+        return BatchIntrospectResponse.builder().results(results).build();
+    }
+
+    /** The full scope, with the permissions of a compact token spelled out for callers that cannot expand them. */
+    private String scopeOf(JWTClaimsSet claims) {
+        String scope = (String) claims.getClaim("scope");
+        String permissions = (String) claims.getClaim("perms");
+        if (permissions == null) {
+            return scope;
+        }
+        return scopeCache.expand(scope, permissions, ((Number) claims.getClaim("pv")).intValue());
+    }
+
+    /** The claims of a well-formed, correctly signed, unexpired access token, or null; revocation is left out. */
+    private JWTClaimsSet verifiedClaims(String token) {
+        if (token == null) {
+            metrics.outcome("verify", "malformed");
+            return null;
+        }
+        try {
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            if (claims.getJWTID() == null || claims.getExpirationTime() == null) {
+                metrics.outcome("verify", "malformed");
+                return null;
+            }
+            JWSVerifier verifier = signingKeys.verifierFor(signedJWT.getHeader());
+            if (verifier == null || !signedJWT.verify(verifier)) {
+                metrics.outcome("verify", "invalid-signature");
+                return null;
+            }
+            if (!claims.getExpirationTime().after(new Date())) {
+                metrics.outcome("verify", "expired");
+                return null;
+            }
+            return claims;
+        } catch (ParseException | JOSEException e) {
+            metrics.outcome("verify", "malformed");
+            return null;
+        }
+    }
 
     public AuthenticationResponse outboundAuthentication(String code) {
-        var response = outboundIdentityClient.exchangeToken(ExchangeTokenRequest.builder()
-                .code(code)
-                .clientId(CLIENT_ID)
-                .clientSecret(CLIENT_SECRET)
-                .redirectUri(REDIRECT_URI)
-                .grantType(GRANT_TYPE)
-                .build());
-
-        var userInfo = outboundUserClient.getUserInfo("json", response.getAccessToken());
-
-        Set<Role> roles = new HashSet<>();
-        roles.add(Role.builder().name(PredefinedRole.USER_ROLE).build()); // default
-
-        var user = userRepository.findByUsername(userInfo.getEmail()).orElseGet(() -> {
-            var newUser = User.builder()
-                    .username(userInfo.getEmail())
-                    .firstName(userInfo.getGivenName())
-                    .lastName(userInfo.getFamilyName())
-                    .roles(roles)
-                    .build();
-            return userRepository.save(newUser);
-        });
+        var response = metrics.record(
+                "outbound",
+                "token-exchange",
+                () -> outboundIdentityClient.exchangeToken(ExchangeTokenRequest.builder()
+                        .code(code)
+                        .clientId(CLIENT_ID)
+                        .clientSecret(CLIENT_SECRET)
+                        .redirectUri(REDIRECT_URI)
+                        .grantType(GRANT_TYPE)
+                        .build()));
+
+        // The id_token already carries the profile; userinfo is only needed without it or without Google's keys
+        var userInfo = Optional.ofNullable(response.getIdToken())
+                .flatMap(idToken -> metrics.record(
+                        "outbound", "id-token-verification", () -> googleIdTokenVerifier.verify(idToken)))
+                .orElseGet(() -> metrics.record(
+                        "outbound",
+                        "userinfo",
+                        () -> outboundUserClient.getUserInfo("json", response.getAccessToken())));
+        if (!userInfo.isVerifiedEmail()) {
+            // The email becomes the username, so an unverified one could take over an existing account
+            metrics.outcome("outbound", "unverified-email");
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
 
-        var token = generateToken(user);
+        var existingUser = metrics.record(
+                "outbound", "user-lookup", () -> userRepository.findWithRolesByUsername(userInfo.getEmail()));
+        metrics.outcome("outbound", existingUser.isPresent() ? "existing-user" : "new-user");
+        var user = existingUser.orElseGet(() -> metrics.record("outbound", "onboarding", () -> onboard(userInfo)));
 
-        return AuthenticationResponse.builder()
-                .token(token)
-                .authenticated(true)
-                .build();
+        var token = metrics.record("outbound", "token-signing", () -> generateToken(user));
+
+        return AuthenticationResponse.builder().token(token).authenticated(true).build();
     }
 
-    public AuthenticationResponse isAuthenticated(AuthenticationRequest request) {
-        User user = userRepository
-                .findByUsername(request.getUsername())
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
-        boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+    public AuthenticationResponse isAuthenticated(AuthenticationRequest request, String clientIp) {
+        loginRateLimiter.acquire(request.getUsername(), clientIp);
+        User user = metrics.record(
+                        "login",
+                        "user-lookup",
+                        () -> readYourWrites.read(
+                                request.getUsername(),
+                                () -> userRepository.findWithRolesByUsername(request.getUsername())))
+                .orElseThrow(() -> {
+                    metrics.outcome("login", "user-not-found");
+                    return new AppException(ErrorCode.USER_NOT_FOUND);
+                });
+        boolean authenticated = metrics.record(
+                "login",
+                "password-match",
+                () -> passwordHashingService.matches(request.getPassword(), user.getPassword()));
 
         if (!authenticated) {
+            metrics.outcome("login", "bad-password");
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
-        String token = generateToken(user);
+        rehashIfNeeded(user, request.getPassword());
+        String token = metrics.record("login", "token-signing", () -> generateToken(user));
+        metrics.outcome("login", "success");
         return AuthenticationResponse.builder().token(token).authenticated(true).build();
     }
 
+    /**
+     * Re-hashes a password stored at another cost on the low-priority rehash thread. A full rehash queue or a failed
+     * write only leaves the old hash for the next login, and a password changed in the meantime is never overwritten.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        String oldPassword = user.getPassword();
+        if (!passwordHashingService.needsRehash(oldPassword)) {
+            return;
+        }
+        boolean queued = passwordHashingService.rehash(rawPassword, newPassword -> {
+            try {
+                userRepository.updatePasswordIfUnchanged(user.getId(), oldPassword, newPassword);
+            } catch (DataAccessException e) {
+                log.info("Skipped password rehash for {}: {}", user.getUsername(), e.getMessage());
+            }
+        });
+        if (!queued) {
+            log.info("Skipped password rehash for {}: rehash queue full", user.getUsername());
+        }
+    }
+
     public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
         SignedJWT signedToken = verifyToken(request.getToken(), true);
         String tokenId = signedToken.getJWTClaimsSet().getJWTID();
@@ -141,12 +268,19 @@ public class AuthenticationService {
                 .id(tokenId)
                 .expiryTime(expirationTime)
                 .build();
-        invalidatedTokenRepository.save(invalidatedToken);
+        metrics.record("refresh", "revocation-write", () -> {
+            tokenRevocationCache.revoke(invalidatedToken);
+            return null;
+        });
 
         String username = signedToken.getJWTClaimsSet().getSubject();
-        User user =
-                userRepository.findByUsername(username).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        String token = generateToken(user);
+        User user = metrics.record("refresh", "user-lookup", () -> userRepository.findWithRolesByUsername(username))
+                .orElseThrow(() -> {
+                    metrics.outcome("refresh", "user-not-found");
+                    return new AppException(ErrorCode.USER_NOT_FOUND);
+                });
+        String token = metrics.record("refresh", "token-signing", () -> generateToken(user));
+        metrics.outcome("refresh", "success");
         return AuthenticationResponse.builder().token(token).authenticated(true).build();
     }
 
@@ -159,69 +293,102 @@ public class AuthenticationService {
                     .id(tokenId)
                     .expiryTime(expirationTime)
                     .build();
-            invalidatedTokenRepository.save(invalidatedToken);
+            tokenRevocationCache.revoke(invalidatedToken);
         } catch (AppException e) {
             log.info("Token verification failed during logout: {}", e.getMessage());
         }
     }
 
     public SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        JWSVerifier jwsVerifier = new MACVerifier(SIGNER_KEY.getBytes());
-        SignedJWT signedJWT = SignedJWT.parse(token);
-        var tokenId = signedJWT.getJWTClaimsSet().getJWTID();
+        var sample = metrics.start();
+        SignedJWT signedJWT;
+        JWTClaimsSet claims;
+        try {
+            signedJWT = SignedJWT.parse(token);
+            claims = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            metrics.outcome("verify", "malformed");
+            throw e;
+        } finally {
+            metrics.stop(sample, "verify", "parse");
+        }
+        var tokenId = claims.getJWTID();
         Date expirationTime = (isRefresh)
-                ? new Date(signedJWT
-                        .getJWTClaimsSet()
-                        .getIssueTime()
+                ? new Date(claims.getIssueTime()
                         .toInstant()
                         .plus(REFRESH_VALID_DURATION, ChronoUnit.SECONDS)
                         .toEpochMilli())
-                : signedJWT.getJWTClaimsSet().getExpirationTime();
-        boolean valid = signedJWT.verify(jwsVerifier) && expirationTime.after(new Date());
-        if (!valid) {
+                : claims.getExpirationTime();
+
+        sample = metrics.start();
+        boolean signatureValid;
+        try {
+            JWSVerifier verifier = signingKeys.verifierFor(signedJWT.getHeader());
+            signatureValid = verifier != null && signedJWT.verify(verifier);
+        } finally {
+            metrics.stop(sample, "verify", "signature");
+        }
+        if (!signatureValid) {
+            metrics.outcome("verify", "invalid-signature");
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
-        if (invalidatedTokenRepository.existsById(tokenId)) {
+        if (!expirationTime.after(new Date())) {
+            metrics.outcome("verify", "expired");
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        if (metrics.record("verify", "revocation-lookup", () -> tokenRevocationCache.isRevoked(tokenId))) {
+            metrics.outcome("verify", "revoked");
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
+        metrics.outcome("verify", "valid");
         return signedJWT;
     }
 
+    /**
+     * Creates the user on first login with the persisted USER role. Concurrent first logins for the same email race
+     * on the unique username: the loser's insert leaves the winner's row alone, its role insert finds no row with
+     * its id, and it reads the winner's row instead of failing.
+     */
+    private User onboard(OutboundUserResponse userInfo) {
+        return transactionTemplate.execute(status -> {
+            String id = UUID.randomUUID().toString();
+            userRepository.insertIfAbsent(id, userInfo.getEmail(), userInfo.getGivenName(), userInfo.getFamilyName());
+            userRepository.insertRole(id, PredefinedRole.USER_ROLE);
+            return userRepository
+                    .findWithRolesByUsername(userInfo.getEmail())
+                    .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+        });
+    }
+
     private String generateToken(User user) {
-        JWSHeader jwsHeader = new JWSHeader(JWSAlgorithm.HS512);
-        JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
                 .subject(user.getUsername())
                 .issuer("jb.com")
                 .issueTime(new Date())
                 .expirationTime(new Date(
                         Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS).toEpochMilli()))
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(user))
-                .build();
-        Payload payload = new Payload(jwtClaimsSet.toJSONObject());
-
-        JWSObject jwsObject = new JWSObject(jwsHeader, payload);
+                .jwtID(UUID.randomUUID().toString());
+        Optional<ScopeCache.CompactScope> compactScope = COMPACT_PERMISSIONS && user.getRoles() != null
+                ? scopeCache.compactScopeFor(
+                        user.getRoles().stream().map(Role::getName).toList())
+                : Optional.empty();
+        compactScope.ifPresentOrElse(
+                scope -> claims.claim("scope", scope.scope())
+                        .claim("perms", scope.permissions())
+                        .claim("pv", scope.dictionaryVersion()),
+                () -> claims.claim("scope", buildScope(user)));
         try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
-            return jwsObject.serialize();
+            return signingKeys.sign(claims.build());
         } catch (JOSEException e) {
             throw new RuntimeException(e);
         }
     }
 
     private String buildScope(User user) {
-        StringJoiner joiner = new StringJoiner(" ");
-        if (user.getRoles() != null) {
-            user.getRoles().forEach(role -> {
-                joiner.add("ROLE_" + role.getName());
-                if (role.getPermissions() != null) {
-                    role.getPermissions().forEach(permission -> {
-                        joiner.add(permission.getName());
-                    });
-                }
-            });
-        }
-        return joiner.toString();
+        if (user.getRoles() == null) {
+            return "";
+        }
+        return scopeCache.scopeFor(user.getRoles().stream().map(Role::getName).toList());
     }
 }
@@ -0,0 +1,111 @@
+package com.jb.identity_service.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.jb.identity_service.dto.response.OutboundUserResponse;
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies Google {@code id_token}s locally against Google's JWKS, so a social login needs no userinfo call. Keys
+ * are cached, looked up by {@code kid} and refreshed in the background before the cache expires; an unknown
+ * {@code kid} triggers a (rate-limited) refetch, which covers Google's key rotation.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class GoogleIdTokenVerifier {
+    static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+
+    JWKSource<SecurityContext> jwkSource;
+    DefaultJWTProcessor<SecurityContext> jwtProcessor;
+
+    public GoogleIdTokenVerifier(
+            @Value("${outbound.identity.client-id}") String clientId,
+            @Value("${outbound.identity.jwks-url:https://www.googleapis.com/oauth2/v3/certs}") String jwksUrl,
+            @Value("${outbound.identity.jwks-cache.time-to-live:PT1H}") Duration timeToLive,
+            @Value("${outbound.identity.jwks-cache.refresh-ahead:PT5M}") Duration refreshAhead,
+            @Value("${outbound.identity.jwks-cache.refresh-timeout:PT15S}") Duration refreshTimeout)
+            throws MalformedURLException {
+        this.jwkSource = JWKSourceBuilder.<SecurityContext>create(
+                        URI.create(jwksUrl).toURL())
+                .cache(timeToLive.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .build();
+        this.jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier(
+                new DefaultJWTClaimsVerifier<>(clientId, null, Set.of("iss", "sub", "email", "exp", "iat")));
+    }
+
+    /**
+     * Returns the profile carried by a valid {@code id_token}, or empty when the key set cannot be fetched so the
+     * caller can fall back to userinfo. A token that is present but invalid, or whose email Google has not verified,
+     * is rejected: the email becomes the username, so an unverified one could claim an existing account.
+     */
+    public Optional<OutboundUserResponse> verify(String idToken) {
+        JWTClaimsSet claims;
+        try {
+            claims = jwtProcessor.process(idToken, null);
+        } catch (KeySourceException e) {
+            log.warn("Google JWKS unavailable, falling back to userinfo: {}", e.getMessage());
+            return Optional.empty();
+        } catch (ParseException | BadJOSEException | JOSEException e) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        if (!ISSUERS.contains(claims.getIssuer())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        try {
+            if (!Boolean.TRUE.equals(claims.getBooleanClaim("email_verified"))) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+            return Optional.of(OutboundUserResponse.builder()
+                    .id(claims.getSubject())
+                    .email(claims.getStringClaim("email"))
+                    .verifiedEmail(true)
+                    .name(claims.getStringClaim("name"))
+                    .givenName(claims.getStringClaim("given_name"))
+                    .familyName(claims.getStringClaim("family_name"))
+                    .picture(claims.getStringClaim("picture"))
+                    .build());
+        } catch (ParseException e) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        // Stops the background refresh
+        if (jwkSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.jb.identity_service.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.jb.identity_service.repository.JobLeaseRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Database-backed leases so that a scheduled job runs on a single replica at a time. A lease that is not
+ * released (e.g. the node died) simply expires after its duration.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JobLeaseService {
+    JobLeaseRepository jobLeaseRepository;
+    String owner;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.owner = hostName() + "-" + UUID.randomUUID();
+    }
+
+    public boolean tryAcquire(String name, Duration duration) {
+        Instant now = Instant.now();
+        if (jobLeaseRepository.tryAcquire(name, owner, now, now.plus(duration)) == 1) {
+            return true;
+        }
+        if (jobLeaseRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            return jobLeaseRepository.insert(name, owner, now.plus(duration)) == 1;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease {} was created concurrently by another node", name);
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        jobLeaseRepository.release(name, owner, Instant.now());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.exception.LoginThrottledException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Token buckets per username and per client IP, checked before any user lookup or password hashing.
+ *
+ * <p>Buckets live in a fixed number of lock-striped LRU maps, so memory stays bounded no matter how many
+ * distinct usernames or addresses an attacker cycles through; the least recently used buckets are dropped
+ * first. Stripes use {@link ReentrantLock} rather than {@code synchronized} so virtual threads do not pin.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoginRateLimiter {
+    boolean enabled;
+    Limit usernameLimit;
+    Limit ipLimit;
+    Limit introspectBatchLimit;
+    Stripe[] stripes;
+    Counter usernameRejections;
+    Counter ipRejections;
+    Counter introspectBatchRejections;
+
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${security.login-throttle.username.capacity:5}") int usernameCapacity,
+            @Value("${security.login-throttle.username.refill-period:PT1M}") Duration usernameRefillPeriod,
+            @Value("${security.login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-throttle.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+            @Value("${security.login-throttle.stripes:64}") int stripeCount,
+            @Value("${security.login-throttle.max-entries:100000}") int maxEntries,
+            @Value("${security.login-throttle.introspect-batch.capacity:120}") int introspectBatchCapacity,
+            @Value("${security.login-throttle.introspect-batch.refill-period:PT1M}")
+                    Duration introspectBatchRefillPeriod) {
+        this.enabled = enabled;
+        this.usernameLimit = new Limit(usernameCapacity, usernameRefillPeriod);
+        this.ipLimit = new Limit(ipCapacity, ipRefillPeriod);
+        this.introspectBatchLimit = new Limit(introspectBatchCapacity, introspectBatchRefillPeriod);
+        this.stripes = new Stripe[stripeCount];
+        int entriesPerStripe = Math.max(1, maxEntries / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(entriesPerStripe);
+        }
+        this.usernameRejections = Counter.builder("login.throttle.rejected")
+                .tag("key", "username")
+                .register(meterRegistry);
+        this.ipRejections =
+                Counter.builder("login.throttle.rejected").tag("key", "ip").register(meterRegistry);
+        this.introspectBatchRejections = Counter.builder("login.throttle.rejected")
+                .tag("key", "introspect-batch")
+                .register(meterRegistry);
+    }
+
+    /** Takes one attempt from both buckets or throws {@link LoginThrottledException} with a retry delay. */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            long waitNanos = tryConsume("ip:" + clientIp, ipLimit, now);
+            if (waitNanos > 0) {
+                ipRejections.increment();
+                throw new LoginThrottledException(toRetryAfterSeconds(waitNanos));
+            }
+        }
+        String normalized = username == null ? "" : username.toLowerCase(Locale.ROOT);
+        long waitNanos = tryConsume("user:" + normalized, usernameLimit, now);
+        if (waitNanos > 0) {
+            usernameRejections.increment();
+            throw new LoginThrottledException(toRetryAfterSeconds(waitNanos));
+        }
+    }
+
+    /** Takes one batch introspection from the calling client's bucket, which its address shares, or throws. */
+    public void acquireIntrospectBatch(String client, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (String key : new String[] {"batch-client:" + client, "batch-ip:" + clientIp}) {
+            long waitNanos = tryConsume(key, introspectBatchLimit, now);
+            if (waitNanos > 0) {
+                introspectBatchRejections.increment();
+                throw new LoginThrottledException(ErrorCode.INTROSPECT_BATCH_THROTTLED, toRetryAfterSeconds(waitNanos));
+            }
+        }
+    }
+
+    private long tryConsume(String key, Limit limit, long now) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.computeIfAbsent(key, k -> new Bucket(limit.capacity, now));
+            return bucket.tryConsume(limit, now);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private record Limit(double capacity, double tokensPerNano) {
+        Limit(int capacity, Duration refillPeriod) {
+            this(capacity, (double) capacity / refillPeriod.toNanos());
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        /** Returns 0 when a token was taken, otherwise the nanoseconds until one is available. */
+        long tryConsume(Limit limit, long now) {
+            tokens = Math.min(limit.capacity(), tokens + (now - lastRefill) * limit.tokensPerNano());
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / limit.tokensPerNano());
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Bucket> buckets;
+
+        Stripe(int maxEntries) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.jb.identity_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Runs password hashing on a pool sized to the CPU count, so a burst of logins queues here instead of
+ * occupying every request thread. When the queue is full the caller is rejected straight away.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PasswordHashingService {
+    PasswordEncoder passwordEncoder;
+    ThreadPoolExecutor executor;
+    // Bulk imports hash on their own, smaller pool so a large import cannot fill the login queue or take every core
+    ThreadPoolExecutor bulkExecutor;
+    // One permit per bulk queue slot; encodeAll waits for a permit, so the importer slows to the pool's pace
+    Semaphore bulkPermits;
+    // Rehashes after a login run on one minimum-priority thread with a short queue, and are dropped when it is full
+    ThreadPoolExecutor rehashExecutor;
+
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            @Value("${security.password-hashing.pool-size:0}") int poolSize,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.bulk-pool-size:0}") int bulkPoolSize,
+            @Value("${security.password-hashing.bulk-queue-capacity:64}") int bulkQueueCapacity,
+            @Value("${security.password-hashing.rehash-queue-capacity:16}") int rehashQueueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        int bulkThreads = bulkPoolSize > 0
+                ? bulkPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        Semaphore permits = new Semaphore(bulkQueueCapacity);
+        this.bulkPermits = permits;
+        this.bulkExecutor =
+                new ThreadPoolExecutor(
+                        bulkThreads,
+                        bulkThreads,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(bulkQueueCapacity),
+                        new CustomizableThreadFactory("password-hashing-bulk-"),
+                        new ThreadPoolExecutor.AbortPolicy()) {
+                    // The task has left the queue; also runs for tasks cancelled while queued
+                    @Override
+                    protected void beforeExecute(Thread thread, Runnable task) {
+                        permits.release();
+                    }
+                };
+        CustomizableThreadFactory rehashThreads = new CustomizableThreadFactory("password-rehash-");
+        rehashThreads.setThreadPriority(Thread.MIN_PRIORITY);
+        this.rehashExecutor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(rehashQueueCapacity),
+                rehashThreads,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return await(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hashes in the background and hands the new hash to {@code store}, both on the rehash thread, so neither takes
+     * a login pool slot or thread. Returns {@code false} without doing anything when the rehash queue is full.
+     */
+    public boolean rehash(CharSequence rawPassword, Consumer<String> store) {
+        try {
+            rehashExecutor.execute(() -> store.accept(passwordEncoder.encode(rawPassword)));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hashes a batch in parallel on the bulk pool, keeping input order; null passwords stay null. When the pool and
+     * its queue are full the caller blocks until a hash finishes rather than queueing more work.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                futures.add(rawPassword == null ? CompletableFuture.completedFuture(null) : submitBulk(rawPassword));
+            }
+            for (Future<String> future : futures) {
+                encoded.add(get(future));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return encoded;
+    }
+
+    /** Whether a hash was produced with a different cost than the encoder currently uses. */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private Future<String> submitBulk(CharSequence rawPassword) {
+        try {
+            bulkPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.PASSWORD_HASHING_BUSY);
+        }
+        try {
+            return bulkExecutor.submit(() -> passwordEncoder.encode(rawPassword));
+        } catch (RejectedExecutionException e) {
+            bulkPermits.release();
+            throw new AppException(ErrorCode.PASSWORD_HASHING_BUSY);
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new AppException(ErrorCode.PASSWORD_HASHING_BUSY);
+        }
+        return get(future);
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.PASSWORD_HASHING_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        bulkExecutor.shutdown();
+        rehashExecutor.shutdown();
+    }
+}
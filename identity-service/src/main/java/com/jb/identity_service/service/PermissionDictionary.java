@@ -0,0 +1,170 @@
+package com.jb.identity_service.service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.PermissionSlot;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.PermissionSlotRepository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Numbers permissions for the compact {@code perms} claim, a base64url bitset over these numbers that replaces the
+ * permission names in {@code scope}. A name keeps its number for good and numbers are never reused, so the
+ * dictionary only grows: its version is the number of slots, and any version at least a token's {@code pv}
+ * decodes it.
+ *
+ * <p>Numbers are handed out when a permission is created, and at startup for any permission created without one;
+ * reading the dictionary never writes. A permission without a number keeps its holders on the plain scope.
+ *
+ * <p>Snapshots are stamped with the generation read before loading, as in {@link ScopeCache}, so one loaded while a
+ * permission was being added is replaced on the next read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PermissionDictionary {
+    static final int ASSIGN_ATTEMPTS = 3;
+
+    PermissionRepository permissionRepository;
+    PermissionSlotRepository permissionSlotRepository;
+    AtomicLong generation = new AtomicLong();
+    AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public Snapshot current() {
+        long expected = generation.get();
+        Snapshot snapshot = current.get();
+        if (snapshot != null && snapshot.generation == expected) {
+            return snapshot;
+        }
+        // From the primary: a lagging replica would miss the permission whose write invalidated the snapshot
+        snapshot = ReadYourWrites.onPrimary(() -> load(expected));
+        current.set(snapshot);
+        return snapshot;
+    }
+
+    /** The current dictionary, reloaded first if it is older than {@code version}. */
+    public Snapshot atLeast(int version) {
+        Snapshot snapshot = current();
+        if (snapshot.version() >= version) {
+            return snapshot;
+        }
+        invalidate();
+        return current();
+    }
+
+    /** Called after a permission write has been committed. */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Numbers every permission that has none yet, then invalidates the local snapshot. Called after a permission is
+     * created; when another node takes the same number first, the numbering is retried from the new maximum.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void assignSlots() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ReadYourWrites.onPrimary(() -> {
+                    insertMissingSlots();
+                    return null;
+                });
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == ASSIGN_ATTEMPTS) {
+                    // Left for the next permission write or restart; tokens fall back to the plain scope until then
+                    log.warn("Permission numbering kept racing with other nodes: {}", e.getMessage());
+                    break;
+                }
+            }
+        }
+        invalidate();
+    }
+
+    private void insertMissingSlots() {
+        Set<String> numbered = new HashSet<>();
+        permissionSlotRepository.findAll().forEach(slot -> numbered.add(slot.getName()));
+        List<String> unnumbered = permissionRepository.findAll().stream()
+                .map(Permission::getName)
+                .filter(name -> !numbered.contains(name))
+                .sorted()
+                .toList();
+        if (unnumbered.isEmpty()) {
+            return;
+        }
+        int next = permissionSlotRepository.findMaxBitIndex() + 1;
+        for (String name : unnumbered) {
+            permissionSlotRepository.insert(next++, name);
+        }
+    }
+
+    private Snapshot load(long generation) {
+        List<PermissionSlot> slots = permissionSlotRepository.findAll();
+        String[] names = new String
+                [slots.stream().mapToInt(PermissionSlot::getBitIndex).max().orElse(-1) + 1];
+        slots.forEach(slot -> names[slot.getBitIndex()] = slot.getName());
+        return new Snapshot(generation, Arrays.asList(names));
+    }
+
+    public static final class Snapshot {
+        final long generation;
+        final List<String> permissions;
+        final Map<String, Integer> bitIndexes = new HashMap<>();
+
+        Snapshot(long generation, List<String> permissions) {
+            this.generation = generation;
+            this.permissions = Collections.unmodifiableList(permissions);
+            for (int i = 0; i < permissions.size(); i++) {
+                if (permissions.get(i) != null) {
+                    bitIndexes.put(permissions.get(i), i);
+                }
+            }
+        }
+
+        public int version() {
+            return permissions.size();
+        }
+
+        /** Permission names by bit index; a gap left by a failed insert is null. */
+        public List<String> permissions() {
+            return permissions;
+        }
+
+        /** The bitset for {@code names}, or empty when one of them has no number yet. */
+        public Optional<String> encode(Collection<String> names) {
+            BitSet bits = new BitSet(permissions.size());
+            for (String name : names) {
+                Integer bitIndex = bitIndexes.get(name);
+                if (bitIndex == null) {
+                    return Optional.empty();
+                }
+                bits.set(bitIndex);
+            }
+            return Optional.of(Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+        }
+
+        public List<String> decode(String encoded) {
+            BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+            List<String> names = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0 && i < permissions.size(); i = bits.nextSetBit(i + 1)) {
+                if (permissions.get(i) != null) {
+                    names.add(permissions.get(i));
+                }
+            }
+            return names;
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.jb.identity_service.service;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.jb.identity_service.dto.request.PermissionRequest;
+import com.jb.identity_service.dto.response.PermissionDictionaryResponse;
 import com.jb.identity_service.dto.response.PermissionResponse;
 import com.jb.identity_service.entity.Permission;
 import com.jb.identity_service.mapper.PermissionMapper;
@@ -20,19 +22,34 @@ import lombok.experimental.FieldDefaults;
 public class PermissionService {
     PermissionRepository permissionRepository;
     PermissionMapper permissionMapper;
+    ScopeCache scopeCache;
+    PermissionDictionary permissionDictionary;
 
     public PermissionResponse createPermission(PermissionRequest request) {
         Permission permission = permissionMapper.toPermission(request);
-        return permissionMapper.toPermissionResponse(permissionRepository.save(permission));
+        var response = permissionMapper.toPermissionResponse(permissionRepository.save(permission));
+        permissionDictionary.assignSlots();
+        scopeCache.invalidate();
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public List<PermissionResponse> getAllPermissions() {
         return permissionRepository.findAll().stream()
                 .map(permissionMapper::toPermissionResponse)
                 .toList();
     }
 
+    public PermissionDictionaryResponse getDictionary() {
+        var dictionary = permissionDictionary.current();
+        return PermissionDictionaryResponse.builder()
+                .version(dictionary.version())
+                .permissions(dictionary.permissions())
+                .build();
+    }
+
     public void deletePermission(String id) {
         permissionRepository.deleteById(id);
+        scopeCache.invalidate();
     }
 }
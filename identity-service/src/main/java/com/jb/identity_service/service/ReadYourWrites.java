@@ -0,0 +1,96 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Keeps reads of just-written users on the primary while replicas may still lag behind. A write records the user's
+ * id and username for {@code datasource.routing.read-your-writes-window}; reads by either key within that window run
+ * through {@link #onPrimary}, which the routing data source honours even inside read-only transactions.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ReadYourWrites {
+    private static final ThreadLocal<Boolean> ON_PRIMARY = new ThreadLocal<>();
+
+    ConcurrentHashMap<String, Long> writtenUntil = new ConcurrentHashMap<>();
+    long windowMillis;
+    int maxEntries;
+
+    public ReadYourWrites(
+            @Value("${datasource.routing.read-your-writes-window:PT5S}") Duration window,
+            @Value("${datasource.routing.read-your-writes-max-entries:100000}") int maxEntries) {
+        this.windowMillis = window.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Starts the window for {@code keys} once the current transaction commits, when the write becomes visible; at
+     * once if there is none. A rolled-back write records nothing.
+     */
+    public void recordWrite(String... keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(keys);
+                }
+            });
+        } else {
+            record(keys);
+        }
+    }
+
+    private void record(String... keys) {
+        long now = System.currentTimeMillis();
+        if (writtenUntil.size() >= maxEntries) {
+            writtenUntil.values().removeIf(until -> until <= now);
+        }
+        for (String key : keys) {
+            if (key != null && writtenUntil.size() < maxEntries) {
+                writtenUntil.put(key, now + windowMillis);
+            }
+        }
+    }
+
+    /** Runs {@code read} on the primary if {@code key} was written within the window, otherwise as routed. */
+    public <T> T read(String key, Supplier<T> read) {
+        Long until = key == null ? null : writtenUntil.get(key);
+        if (until == null) {
+            return read.get();
+        }
+        if (until <= System.currentTimeMillis()) {
+            writtenUntil.remove(key, until);
+            return read.get();
+        }
+        return onPrimary(read);
+    }
+
+    /** Runs {@code work} with every connection it opens taken from the primary. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = ON_PRIMARY.get();
+        ON_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                ON_PRIMARY.remove();
+            } else {
+                ON_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    public static boolean isOnPrimary() {
+        return ON_PRIMARY.get() != null;
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.jb.identity_service.dto.request.RoleRequest;
 import com.jb.identity_service.dto.response.RoleResponse;
@@ -22,20 +23,25 @@ public class RoleService {
     RoleRepository roleRepository;
     RoleMapper roleMapper;
     PermissionRepository permissionRepository;
+    ScopeCache scopeCache;
 
     public RoleResponse createRole(RoleRequest request) {
         var role = roleMapper.toRole(request);
         var permissions = permissionRepository.findAllById(request.getPermissions());
         role.setPermissions(new HashSet<>(permissions));
 
-        return roleMapper.toRoleResponse(roleRepository.save(role));
+        var response = roleMapper.toRoleResponse(roleRepository.save(role));
+        scopeCache.invalidate();
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public List<RoleResponse> getAllRoles() {
         return roleRepository.findAll().stream().map(roleMapper::toRoleResponse).toList();
     }
 
     public void deleteRole(String id) {
         roleRepository.deleteById(id);
+        scopeCache.invalidate();
     }
 }
@@ -0,0 +1,185 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.repository.CatalogVersionRepository;
+import com.jb.identity_service.repository.RoleRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+/**
+ * Token scope strings keyed by the sorted set of role names. There are only a handful of roles, so the
+ * number of distinct role sets (and entries) stays small.
+ *
+ * <p>Every role or permission write bumps the catalog version. Entries are stamped with the version read
+ * before the catalog was loaded, so a scope built from data that changed meanwhile is never served. Writes also
+ * bump a shared version row, which is read at most every {@code jwt.scope.version-check-interval}; a change made
+ * through another node therefore reaches this one's cache within that interval.
+ *
+ * <p>Compact scopes name only the roles in {@code scope} and carry the permissions as a bitset over the
+ * {@link PermissionDictionary}.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ScopeCache {
+    static final String CATALOG = "role-catalog";
+
+    RoleRepository roleRepository;
+    PermissionDictionary permissionDictionary;
+    CatalogVersionRepository catalogVersionRepository;
+    long versionCheckIntervalNanos;
+    AtomicLong catalogVersion = new AtomicLong();
+    ConcurrentHashMap<String, CachedScope> scopes = new ConcurrentHashMap<>();
+    ConcurrentHashMap<String, CachedCompactScope> compactScopes = new ConcurrentHashMap<>();
+
+    @NonFinal
+    volatile long sharedVersion = -1;
+
+    @NonFinal
+    volatile long sharedVersionCheckedAt;
+
+    public ScopeCache(
+            RoleRepository roleRepository,
+            PermissionDictionary permissionDictionary,
+            CatalogVersionRepository catalogVersionRepository,
+            @Value("${jwt.scope.version-check-interval:PT5S}") Duration versionCheckInterval) {
+        this.roleRepository = roleRepository;
+        this.permissionDictionary = permissionDictionary;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.versionCheckIntervalNanos = versionCheckInterval.toNanos();
+        this.sharedVersionCheckedAt = System.nanoTime() - versionCheckIntervalNanos;
+    }
+
+    public String scopeFor(Collection<String> roleNames) {
+        SortedSet<String> sortedNames = new TreeSet<>(roleNames);
+        String key = String.join(",", sortedNames);
+        long version = currentVersion();
+        CachedScope cached = scopes.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached.scope();
+        }
+
+        String scope = buildScope(sortedNames);
+        scopes.put(key, new CachedScope(version, scope));
+        return scope;
+    }
+
+    /** The compact scope for the roles, or empty when a permission is too new to have a number yet. */
+    public Optional<CompactScope> compactScopeFor(Collection<String> roleNames) {
+        SortedSet<String> sortedNames = new TreeSet<>(roleNames);
+        String key = String.join(",", sortedNames);
+        long version = currentVersion();
+        CachedCompactScope cached = compactScopes.get(key);
+        if (cached != null && cached.version() == version) {
+            return Optional.of(cached.scope());
+        }
+
+        List<String> permissionNames = new ArrayList<>();
+        loadRoles(sortedNames).values().forEach(role -> {
+            if (role.getPermissions() != null) {
+                role.getPermissions().forEach(permission -> permissionNames.add(permission.getName()));
+            }
+        });
+        var dictionary = permissionDictionary.current();
+        Optional<CompactScope> scope = dictionary
+                .encode(permissionNames)
+                .map(permissions -> new CompactScope(
+                        sortedNames.stream().map(roleName -> "ROLE_" + roleName).collect(Collectors.joining(" ")),
+                        permissions,
+                        dictionary.version()));
+        scope.ifPresent(compactScope -> compactScopes.put(key, new CachedCompactScope(version, compactScope)));
+        return scope;
+    }
+
+    /** The full scope string of a compact token, as a plain-scope token would carry it. */
+    public String expand(String scope, String permissions, int dictionaryVersion) {
+        List<String> names = permissionDictionary.atLeast(dictionaryVersion).decode(permissions);
+        if (names.isEmpty()) {
+            return scope;
+        }
+        return scope.isEmpty() ? String.join(" ", names) : scope + " " + String.join(" ", names);
+    }
+
+    /** Called after any role or permission write has been committed; other nodes see it through the shared row. */
+    public void invalidate() {
+        if (catalogVersionRepository.increment(CATALOG) == 0) {
+            try {
+                catalogVersionRepository.insert(CATALOG);
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row meanwhile
+                catalogVersionRepository.increment(CATALOG);
+            }
+        }
+        invalidateLocally();
+    }
+
+    private void invalidateLocally() {
+        catalogVersion.incrementAndGet();
+        scopes.clear();
+        compactScopes.clear();
+        permissionDictionary.invalidate();
+    }
+
+    /** The local catalog version, after dropping every entry if the shared version moved since the last check. */
+    private long currentVersion() {
+        long now = System.nanoTime();
+        if (now - sharedVersionCheckedAt >= versionCheckIntervalNanos) {
+            sharedVersionCheckedAt = now;
+            long shared = ReadYourWrites.onPrimary(() -> catalogVersionRepository.findVersion(CATALOG))
+                    .orElse(0L);
+            if (shared != sharedVersion) {
+                // The first check also lands here, which costs one reload at startup
+                sharedVersion = shared;
+                invalidateLocally();
+            }
+        }
+        return catalogVersion.get();
+    }
+
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    private String buildScope(SortedSet<String> roleNames) {
+        if (roleNames.isEmpty()) {
+            return "";
+        }
+        Map<String, Role> roles = loadRoles(roleNames);
+        StringJoiner joiner = new StringJoiner(" ");
+        roleNames.forEach(roleName -> {
+            joiner.add("ROLE_" + roleName);
+            Role role = roles.get(roleName);
+            if (role != null && role.getPermissions() != null) {
+                role.getPermissions().forEach(permission -> joiner.add(permission.getName()));
+            }
+        });
+        return joiner.toString();
+    }
+
+    private Map<String, Role> loadRoles(SortedSet<String> roleNames) {
+        if (roleNames.isEmpty()) {
+            return Map.of();
+        }
+        // From the primary: a lagging replica would cache the catalog from before the write that invalidated it
+        return ReadYourWrites.onPrimary(() -> roleRepository.findWithPermissionsByNameIn(roleNames)).stream()
+                .collect(Collectors.toMap(Role::getName, role -> role));
+    }
+
+    /** Role authorities in {@code scope}, the permission bitset for {@code perms} and its dictionary version. */
+    public record CompactScope(String scope, String permissions, int dictionaryVersion) {}
+
+    private record CachedScope(long version, String scope) {}
+
+    private record CachedCompactScope(long version, CompactScope scope) {}
+}
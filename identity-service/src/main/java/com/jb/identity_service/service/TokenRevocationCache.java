@@ -0,0 +1,232 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.jb.identity_service.entity.InvalidatedToken;
+import com.jb.identity_service.repository.InvalidatedTokenRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local view of the revoked token ids stored in {@link InvalidatedTokenRepository}.
+ *
+ * <p>A hit is always answered from memory. A miss is answered from memory too while the cache is complete, i.e. it
+ * was warmed from the database and has not overflowed since, and has pulled the revocations of every node within
+ * {@code jwt.revocation-cache.max-staleness}. Every {@code sync-interval} the cache reads the rows revoked since its
+ * last pull, less {@code sync-overlap} for clock skew and commit delay, so a token revoked on another node is refused
+ * here within {@code max-staleness}. Otherwise a miss goes to the database. An incomplete cache is re-warmed every
+ * {@code rewarm-interval} until it fits again. Entries are kept until the last moment their token could still be
+ * accepted, which for a refresh is {@code exp + (refresh-valid-duration - valid-duration)}.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenRevocationCache {
+    InvalidatedTokenRepository invalidatedTokenRepository;
+    ConcurrentHashMap<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    List<Consumer<String>> revocationListeners = new CopyOnWriteArrayList<>();
+    int maxEntries;
+    long maxStalenessNanos;
+    long syncOverlapMillis;
+    long retentionGraceMillis;
+
+    @NonFinal
+    volatile boolean warmedUp;
+
+    @NonFinal
+    volatile boolean overflowed;
+
+    // System.nanoTime() and wall clock at the start of the last successful warm-up or pull
+    @NonFinal
+    volatile long syncedAtNanos;
+
+    @NonFinal
+    volatile long syncedAtMillis;
+
+    public TokenRevocationCache(
+            InvalidatedTokenRepository invalidatedTokenRepository,
+            @Value("${jwt.revocation-cache.max-entries:100000}") int maxEntries,
+            @Value("${jwt.revocation-cache.max-staleness:PT3S}") Duration maxStaleness,
+            @Value("${jwt.revocation-cache.sync-overlap:PT10S}") Duration syncOverlap,
+            @Value("${jwt.valid-duration}") long validDuration,
+            @Value("${jwt.refresh-valid-duration}") long refreshValidDuration) {
+        this.invalidatedTokenRepository = invalidatedTokenRepository;
+        this.maxEntries = maxEntries;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.syncOverlapMillis = syncOverlap.toMillis();
+        this.retentionGraceMillis = Math.max(0, refreshValidDuration - validDuration) * 1000;
+        this.syncedAtNanos = System.nanoTime() - maxStalenessNanos - 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // Incomplete until the load below finishes, so misses meanwhile go to the database
+        warmedUp = false;
+        overflowed = false;
+        long startedAtNanos = System.nanoTime();
+        long startedAtMillis = System.currentTimeMillis();
+        try {
+            var rows = ReadYourWrites.onPrimary(() ->
+                    invalidatedTokenRepository.findAllByExpiryTimeAfter(retentionCutoff(), Limit.of(maxEntries + 1)));
+            rows.forEach(row -> record(row.getId(), row.getExpiryTime()));
+            warmedUp = rows.size() <= maxEntries;
+            markSynced(startedAtNanos, startedAtMillis);
+            log.info("Revocation cache warmed with {} tokens, complete: {}", revokedUntil.size(), isComplete());
+        } catch (DataAccessException e) {
+            log.warn("Revocation cache warm-up failed, falling back to database lookups: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${jwt.revocation-cache.rewarm-interval:PT10M}",
+            fixedDelayString = "${jwt.revocation-cache.rewarm-interval:PT10M}")
+    public void rewarmIfOverflowed() {
+        // Also retries a warm-up that failed
+        if (!isComplete()) {
+            warmUp();
+        }
+    }
+
+    /** Pulls the revocations stored by any node since the last pull; skipped while misses go to the database. */
+    @Scheduled(
+            initialDelayString = "${jwt.revocation-cache.sync-interval:PT1S}",
+            fixedDelayString = "${jwt.revocation-cache.sync-interval:PT1S}")
+    public void sync() {
+        if (!isComplete()) {
+            return;
+        }
+        long startedAtNanos = System.nanoTime();
+        long startedAtMillis = System.currentTimeMillis();
+        Date since = new Date(syncedAtMillis - syncOverlapMillis);
+        try {
+            var rows = ReadYourWrites.onPrimary(
+                    () -> invalidatedTokenRepository.findAllByRevokedAtAfter(since, Limit.of(maxEntries + 1)));
+            rows.forEach(row -> record(row.getId(), row.getExpiryTime()));
+            if (rows.size() > maxEntries) {
+                overflowed = true;
+            }
+            markSynced(startedAtNanos, startedAtMillis);
+        } catch (DataAccessException e) {
+            // Misses go to the database once max-staleness has passed without a pull
+            log.warn("Revocation cache sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void markSynced(long startedAtNanos, long startedAtMillis) {
+        syncedAtMillis = startedAtMillis;
+        syncedAtNanos = startedAtNanos;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        long now = System.currentTimeMillis();
+        Long until = revokedUntil.get(tokenId);
+        if (until != null) {
+            if (until > now) {
+                return true;
+            }
+            revokedUntil.remove(tokenId, until);
+        }
+        if (answersMisses()) {
+            return false;
+        }
+
+        // Never from a replica: a revocation it has not caught up with would let the token through
+        var invalidatedToken = ReadYourWrites.onPrimary(() -> invalidatedTokenRepository.findById(tokenId));
+        invalidatedToken.ifPresent(row -> record(row.getId(), row.getExpiryTime()));
+        return invalidatedToken.isPresent();
+    }
+
+    /**
+     * The revoked ids among {@code tokenIds}. Ids memory cannot answer are resolved together with one
+     * {@code IN (...)} query; none is needed while misses are answered from memory.
+     */
+    public Set<String> revokedAmong(Collection<String> tokenIds) {
+        long now = System.currentTimeMillis();
+        Set<String> revoked = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String tokenId : tokenIds) {
+            Long until = revokedUntil.get(tokenId);
+            if (until != null && until > now) {
+                revoked.add(tokenId);
+            } else {
+                unknown.add(tokenId);
+            }
+        }
+        if (unknown.isEmpty() || answersMisses()) {
+            return revoked;
+        }
+
+        ReadYourWrites.onPrimary(() -> invalidatedTokenRepository.findAllById(unknown))
+                .forEach(row -> {
+                    record(row.getId(), row.getExpiryTime());
+                    revoked.add(row.getId());
+                });
+        return revoked;
+    }
+
+    public void revoke(InvalidatedToken invalidatedToken) {
+        invalidatedToken.setRevokedAt(new Date());
+        invalidatedTokenRepository.save(invalidatedToken);
+        record(invalidatedToken.getId(), invalidatedToken.getExpiryTime());
+        revocationListeners.forEach(listener -> listener.accept(invalidatedToken.getId()));
+    }
+
+    /** Calls {@code listener} with the id of every token revoked on this node, once the revocation is stored. */
+    public void onRevoke(Consumer<String> listener) {
+        revocationListeners.add(listener);
+    }
+
+    /** Rows whose expiry time is before this instant can no longer be presented by any client. */
+    public Date retentionCutoff() {
+        return new Date(System.currentTimeMillis() - retentionGraceMillis);
+    }
+
+    public int size() {
+        return revokedUntil.size();
+    }
+
+    public boolean isComplete() {
+        return warmedUp && !overflowed;
+    }
+
+    /** Whether a miss means "not revoked": complete, and in step with the other nodes within max-staleness. */
+    public boolean answersMisses() {
+        return isComplete() && System.nanoTime() - syncedAtNanos <= maxStalenessNanos;
+    }
+
+    private void record(String tokenId, Date expiryTime) {
+        long until = expiryTime.getTime() + retentionGraceMillis;
+        if (until <= System.currentTimeMillis()) {
+            return;
+        }
+        if (revokedUntil.size() >= maxEntries) {
+            evictExpired();
+        }
+        if (revokedUntil.size() >= maxEntries) {
+            // Dropping the entry is safe as long as misses go back to the database from now on.
+            overflowed = true;
+            return;
+        }
+        revokedUntil.merge(tokenId, until, Math::max);
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        revokedUntil.entrySet().removeIf(entry -> entry.getValue() <= now);
+    }
+}
@@ -0,0 +1,163 @@
+package com.jb.identity_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The keys tokens are signed and verified with. In {@code ES256} mode the active P-256 key signs and every EC key
+ * in {@code jwt.signing.jwk-set} verifies and is published, so a key can be rotated in by publishing it before it
+ * becomes active and rotated out once the last token it signed has expired. The HS512 {@code jwt.signerKey} keeps
+ * verifying while it is configured, which lets tokens issued before the switch run out; it is never published.
+ * Startup fails in {@code ES256} mode without a key set unless {@code jwt.signing.generate-dev-key} allows a key
+ * generated for this process, whose tokens no other node or restart can verify.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenSigningKeys {
+    JWSHeader header;
+    JWSSigner signer;
+    JWSVerifier macVerifier;
+    Map<String, JWSVerifier> ecVerifiers = new HashMap<>();
+    JWKSet publicKeys;
+    JWKSource<SecurityContext> verificationKeys;
+
+    public TokenSigningKeys(
+            @Value("${jwt.signing.algorithm:HS512}") String algorithm,
+            @Value("${jwt.signerKey:}") String signerKey,
+            @Value("${jwt.signing.jwk-set:}") String jwkSet,
+            @Value("${jwt.signing.active-key-id:}") String activeKeyId,
+            @Value("${jwt.signing.generate-dev-key:false}") boolean generateDevKey)
+            throws JOSEException, ParseException {
+        List<ECKey> ecKeys = new ArrayList<>();
+        if (!jwkSet.isBlank()) {
+            for (JWK key : JWKSet.parse(jwkSet).getKeys()) {
+                if (!(key instanceof ECKey ecKey) || !Curve.P_256.equals(ecKey.getCurve()) || key.getKeyID() == null) {
+                    throw new IllegalStateException("jwt.signing.jwk-set only takes P-256 EC keys with a kid");
+                }
+                ecKeys.add(ecKey);
+            }
+        }
+
+        List<JWK> verificationJwks = new ArrayList<>();
+        if (signerKey.isBlank()) {
+            this.macVerifier = null;
+        } else {
+            byte[] secret = signerKey.getBytes(StandardCharsets.UTF_8);
+            this.macVerifier = new MACVerifier(secret);
+            verificationJwks.add(new OctetSequenceKey.Builder(secret).build());
+        }
+
+        switch (JWSAlgorithm.parse(algorithm).getName()) {
+            case "HS512" -> {
+                if (macVerifier == null) {
+                    throw new IllegalStateException("HS512 signing needs jwt.signerKey");
+                }
+                this.header = new JWSHeader(JWSAlgorithm.HS512);
+                this.signer = new MACSigner(signerKey.getBytes(StandardCharsets.UTF_8));
+            }
+            case "ES256" -> {
+                if (ecKeys.isEmpty()) {
+                    if (!generateDevKey) {
+                        throw new IllegalStateException("ES256 signing needs jwt.signing.jwk-set, or"
+                                + " jwt.signing.generate-dev-key=true for a per-process key in development");
+                    }
+                    log.warn("No jwt.signing.jwk-set configured, signing with a key generated for this process only");
+                    ecKeys.add(new ECKeyGenerator(Curve.P_256)
+                            .keyID(UUID.randomUUID().toString())
+                            .keyUse(KeyUse.SIGNATURE)
+                            .algorithm(JWSAlgorithm.ES256)
+                            .generate());
+                }
+                ECKey active = activeKeyId.isBlank()
+                        ? ecKeys.stream().filter(JWK::isPrivate).findFirst().orElse(null)
+                        : ecKeys.stream()
+                                .filter(key -> key.getKeyID().equals(activeKeyId))
+                                .findFirst()
+                                .orElse(null);
+                if (active == null || !active.isPrivate()) {
+                    throw new IllegalStateException("ES256 signing needs a private key for jwt.signing.active-key-id");
+                }
+                this.header = new JWSHeader.Builder(JWSAlgorithm.ES256)
+                        .keyID(active.getKeyID())
+                        .build();
+                this.signer = new ECDSASigner(active);
+            }
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm " + algorithm);
+        }
+
+        for (ECKey key : ecKeys) {
+            ecVerifiers.put(key.getKeyID(), new ECDSAVerifier(key.toPublicJWK()));
+        }
+        this.publicKeys = new JWKSet(ecKeys.stream()
+                .map(key -> (JWK) new ECKey.Builder(key.toPublicJWK())
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(JWSAlgorithm.ES256)
+                        .build())
+                .toList());
+        verificationJwks.addAll(publicKeys.getKeys());
+        this.verificationKeys = new ImmutableJWKSet<>(new JWKSet(verificationJwks));
+    }
+
+    public String sign(JWTClaimsSet claims) throws JOSEException {
+        JWSObject jwsObject = new JWSObject(header, new Payload(claims.toJSONObject()));
+        jwsObject.sign(signer);
+        return jwsObject.serialize();
+    }
+
+    /** The verifier for a token's {@code alg} and {@code kid}, or null when no configured key matches. */
+    public JWSVerifier verifierFor(JWSHeader tokenHeader) {
+        if (JWSAlgorithm.HS512.equals(tokenHeader.getAlgorithm())) {
+            return macVerifier;
+        }
+        if (JWSAlgorithm.ES256.equals(tokenHeader.getAlgorithm()) && tokenHeader.getKeyID() != null) {
+            return ecVerifiers.get(tokenHeader.getKeyID());
+        }
+        return null;
+    }
+
+    /** Public halves of the EC keys, as served from {@code /.well-known/jwks.json}. */
+    public JWKSet publicKeys() {
+        return publicKeys;
+    }
+
+    /** Every key a token may be verified with, including the HMAC secret; never publish it. */
+    public JWKSource<SecurityContext> verificationKeys() {
+        return verificationKeys;
+    }
+}
@@ -0,0 +1,81 @@
+package com.jb.identity_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Verifies the tokens of a batch introspection in parallel on its own pool, sized to the CPU count, so a 500-token
+ * batch does not hold one request thread for every signature and never touches the common ForkJoinPool. When the
+ * pool's queue is full the caller verifies the rest itself, which slows that batch instead of queueing more work.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenVerificationExecutor {
+    ThreadPoolExecutor executor;
+    int threads;
+
+    public TokenVerificationExecutor(
+            @Value("${security.introspect-batch.pool-size:0}") int poolSize,
+            @Value("${security.introspect-batch.queue-capacity:64}") int queueCapacity) {
+        this.threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("token-verification-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /** Applies {@code verify} to every item, one slice per pool thread, keeping input order. */
+    public <T, R> List<R> verifyAll(List<T> items, Function<T, R> verify) {
+        int sliceSize = Math.max(1, (items.size() + threads - 1) / threads);
+        List<Future<List<R>>> slices = new ArrayList<>();
+        for (int from = sliceSize; from < items.size(); from += sliceSize) {
+            List<T> slice = items.subList(from, Math.min(items.size(), from + sliceSize));
+            slices.add(executor.submit(() -> slice.stream().map(verify).toList()));
+        }
+        // The caller takes the first slice rather than sit idle
+        List<R> results = new ArrayList<>(items.size());
+        items.subList(0, Math.min(items.size(), sliceSize)).stream().map(verify).forEach(results::add);
+        try {
+            for (Future<List<R>> slice : slices) {
+                results.addAll(get(slice));
+            }
+        } finally {
+            slices.forEach(slice -> slice.cancel(true));
+        }
+        return results;
+    }
+
+    private static <R> R get(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
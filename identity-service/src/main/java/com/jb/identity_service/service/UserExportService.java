@@ -0,0 +1,138 @@
+package com.jb.identity_service.service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.jb.identity_service.dto.projection.UserRoleRow;
+import com.jb.identity_service.dto.response.RoleResponse;
+import com.jb.identity_service.dto.response.UserResponse;
+import com.jb.identity_service.enums.ExportFormat;
+import com.jb.identity_service.mapper.UserRowAssembler;
+import com.jb.identity_service.repository.UserExportRepository;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Writes every user straight from a database cursor to the response, one user at a time, so memory stays
+ * constant whatever the table size.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserExportService {
+    static final int FLUSH_EVERY_USERS = 500;
+    static final String CSV_HEADER = "id,username,firstName,lastName,dateOfBirth,noPassword,roles";
+    // A spreadsheet evaluates a cell starting with one of these as a formula
+    static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    UserExportRepository userExportRepository;
+    UserRowAssembler userRowAssembler;
+    ObjectWriter userWriter;
+
+    @Getter
+    Duration timeout;
+
+    public UserExportService(
+            UserExportRepository userExportRepository,
+            UserRowAssembler userRowAssembler,
+            ObjectMapper objectMapper,
+            @Value("${users.export.timeout:PT30M}") Duration timeout) {
+        this.userExportRepository = userExportRepository;
+        this.userRowAssembler = userRowAssembler;
+        // Flushing is batched in exportTo, not done after every user
+        this.userWriter = objectMapper
+                .writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.timeout = timeout;
+    }
+
+    /** Access is checked here, on the request thread; the returned body runs later on an async thread. */
+    @PreAuthorize("hasRole('ADMIN')")
+    public StreamingResponseBody exportUsers(ExportFormat format) {
+        return outputStream -> exportTo(format, outputStream);
+    }
+
+    void exportTo(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            try (Stream<UserRoleRow> rows = userExportRepository.streamAllRows()) {
+                if (format == ExportFormat.CSV) {
+                    writeLine(writer, CSV_HEADER);
+                }
+                int[] written = {0};
+                userRowAssembler.forEachUser(rows, user -> {
+                    try {
+                        if (format == ExportFormat.CSV) {
+                            writeLine(writer, toCsvLine(user));
+                        } else {
+                            userWriter.writeValue(writer, user);
+                            writer.write('\n');
+                        }
+                        if (++written[0] % FLUSH_EVERY_USERS == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor and its connection are already closed
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String toCsvLine(UserResponse user) {
+        String roles = user.getRoles().stream().map(RoleResponse::getName).collect(Collectors.joining("|"));
+        return String.join(
+                ",",
+                csv(user.getId()),
+                csv(user.getUsername()),
+                csv(user.getFirstName()),
+                csv(user.getLastName()),
+                user.getDateOfBirth() != null ? user.getDateOfBirth().toString() : "",
+                String.valueOf(user.isNoPassword()),
+                csv(roles));
+    }
+
+    /**
+     * Prefixes {@code '} to a field a spreadsheet would run as a formula, then quotes it per RFC 4180 when it
+     * contains a delimiter, quote or line break.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
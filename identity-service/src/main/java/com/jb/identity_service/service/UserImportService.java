@@ -0,0 +1,260 @@
+package com.jb.identity_service.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.jb.identity_service.constant.PredefinedRole;
+import com.jb.identity_service.dto.request.UserCreationRequest;
+import com.jb.identity_service.dto.response.UserImportFailure;
+import com.jb.identity_service.dto.response.UserImportResponse;
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.exception.GlobalExceptionHandler;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports users from NDJSON (one {@link UserCreationRequest} per line) in chunks: passwords are hashed in
+ * parallel, then users and their {@code user_roles} rows go in as JDBC batches. A line that fails validation or
+ * whose username is taken is reported and skipped; the rest of the file still imports.
+ *
+ * <p>Each chunk commits on its own. When a chunk fails in the database for any reason other than a taken username,
+ * every line of it is reported as {@link ErrorCode#IMPORT_CHUNK_FAILED} and the import goes on with the next chunk,
+ * so the response always says which lines were stored.
+ */
+@Slf4j
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserImportService {
+    // Only a username clash is absorbed (and then missing from the id check below); any other error fails the chunk
+    static final String INSERT_USER = "insert into user"
+            + " (id, username, password, first_name, last_name, date_of_birth) values (?, ?, ?, ?, ?, ?)"
+            + " on duplicate key update id = id";
+    static final String INSERT_USER_ROLE = "insert into user_roles (user_id, roles_name) values (?, ?)";
+
+    UserRepository userRepository;
+    RoleRepository roleRepository;
+    PasswordHashingService passwordHashingService;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+    Validator validator;
+    ObjectReader requestReader;
+    int chunkSize;
+    int maxReportedFailures;
+
+    public UserImportService(
+            UserRepository userRepository,
+            RoleRepository roleRepository,
+            PasswordHashingService passwordHashingService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${users.import.chunk-size:1000}") int chunkSize,
+            @Value("${users.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(UserCreationRequest.class);
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    private record Line(long number, UserCreationRequest request) {}
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserImportResponse importUsers(InputStream inputStream) throws IOException {
+        var result = UserImportResponse.builder().failures(new ArrayList<>()).build();
+        boolean assignUserRole = roleRepository.existsById(PredefinedRole.USER_ROLE);
+        Set<String> chunkUsernames = new HashSet<>();
+        List<Line> chunk = new ArrayList<>(chunkSize);
+
+        var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (!StringUtils.hasText(text)) {
+                continue;
+            }
+            UserCreationRequest request;
+            try {
+                request = requestReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                fail(result, lineNumber, null, ErrorCode.IMPORT_LINE_MALFORMED);
+                continue;
+            }
+            if (!StringUtils.hasText(request.getUsername())) {
+                fail(result, lineNumber, null, ErrorCode.USERNAME_INVALID);
+                continue;
+            }
+            Set<ConstraintViolation<UserCreationRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                var violation = violations.iterator().next();
+                ErrorCode errorCode = errorCodeOf(violation);
+                fail(
+                        result,
+                        lineNumber,
+                        request.getUsername(),
+                        errorCode,
+                        errorCode == ErrorCode.IMPORT_LINE_INVALID
+                                ? violation.getPropertyPath() + ": " + violation.getMessage()
+                                : GlobalExceptionHandler.mapAttibute(
+                                        errorCode.getMessage(),
+                                        violation.getConstraintDescriptor().getAttributes()));
+                continue;
+            }
+            // The username column is case-insensitive, so duplicates inside a chunk are too; the database catches
+            // duplicates across chunks
+            if (!chunkUsernames.add(request.getUsername().toLowerCase(Locale.ROOT))) {
+                fail(result, lineNumber, request.getUsername(), ErrorCode.USER_EXISTED);
+                continue;
+            }
+            chunk.add(new Line(lineNumber, request));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, assignUserRole, result);
+                chunk.clear();
+                chunkUsernames.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, assignUserRole, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<Line> chunk, boolean assignUserRole, UserImportResponse result) {
+        // Skip hashing for usernames that are already taken; the insert below still guards against races
+        Set<String> existing = new HashSet<>();
+        userRepository
+                .findExistingUsernames(
+                        chunk.stream().map(line -> line.request().getUsername()).toList())
+                .forEach(username -> existing.add(username.toLowerCase(Locale.ROOT)));
+        List<Line> candidates = new ArrayList<>(chunk.size());
+        for (Line line : chunk) {
+            if (existing.contains(line.request().getUsername().toLowerCase(Locale.ROOT))) {
+                fail(result, line.number(), line.request().getUsername(), ErrorCode.USER_EXISTED);
+            } else {
+                candidates.add(line);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<String> passwords = passwordHashingService.encodeAll(
+                candidates.stream().map(line -> line.request().getPassword()).toList());
+        List<String> ids =
+                candidates.stream().map(line -> UUID.randomUUID().toString()).toList();
+
+        Set<String> inserted;
+        try {
+            inserted = insertChunk(candidates, passwords, ids, assignUserRole);
+        } catch (DataAccessException e) {
+            log.warn(
+                    "Import chunk from line {} rolled back: {}",
+                    candidates.getFirst().number(),
+                    e.getMostSpecificCause().getMessage());
+            candidates.forEach(
+                    line -> fail(result, line.number(), line.request().getUsername(), ErrorCode.IMPORT_CHUNK_FAILED));
+            return;
+        }
+
+        for (int i = 0; i < candidates.size(); i++) {
+            if (inserted.contains(ids.get(i))) {
+                result.setImported(result.getImported() + 1);
+            } else {
+                Line line = candidates.get(i);
+                fail(result, line.number(), line.request().getUsername(), ErrorCode.USER_EXISTED);
+            }
+        }
+    }
+
+    /** Inserts the chunk's users and their roles in one transaction and returns the ids that went in. */
+    private Set<String> insertChunk(
+            List<Line> candidates, List<String> passwords, List<String> ids, boolean assignUserRole) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    var request = candidates.get(i).request();
+                    ps.setString(1, ids.get(i));
+                    ps.setString(2, request.getUsername());
+                    ps.setString(3, passwords.get(i));
+                    ps.setString(4, request.getFirstName());
+                    ps.setString(5, request.getLastName());
+                    ps.setDate(6, request.getDateOfBirth() != null ? Date.valueOf(request.getDateOfBirth()) : null);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return candidates.size();
+                }
+            });
+            // Update counts are not reliable with rewritten batches, so ask which ids made it in
+            Set<String> insertedIds = new HashSet<>(userRepository.findExistingIds(ids));
+            if (assignUserRole && !insertedIds.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_USER_ROLE, insertedIds, insertedIds.size(), (ps, id) -> {
+                    ps.setString(1, id);
+                    ps.setString(2, PredefinedRole.USER_ROLE);
+                });
+            }
+            return insertedIds;
+        });
+    }
+
+    /** The error code a constraint names in its message, or {@link ErrorCode#IMPORT_LINE_INVALID} if it names none. */
+    private static ErrorCode errorCodeOf(ConstraintViolation<?> violation) {
+        try {
+            return ErrorCode.valueOf(violation.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ErrorCode.IMPORT_LINE_INVALID;
+        }
+    }
+
+    private void fail(UserImportResponse result, long line, String username, ErrorCode errorCode) {
+        fail(result, line, username, errorCode, errorCode.getMessage());
+    }
+
+    private void fail(UserImportResponse result, long line, String username, ErrorCode errorCode, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getFailures().size() < maxReportedFailures) {
+            result.getFailures()
+                    .add(UserImportFailure.builder()
+                            .line(line)
+                            .username(username)
+                            .code(errorCode.getCode())
+                            .message(message)
+                            .build());
+        }
+    }
+}
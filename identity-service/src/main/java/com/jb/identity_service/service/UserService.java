@@ -1,40 +1,54 @@
 package com.jb.identity_service.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import com.jb.identity_service.constant.PredefinedRole;
+import com.jb.identity_service.dto.projection.RolePermissionRow;
+import com.jb.identity_service.dto.projection.UserRoleRow;
 import com.jb.identity_service.dto.request.UserCreationRequest;
 import com.jb.identity_service.dto.request.UserUpdateRequest;
+import com.jb.identity_service.dto.response.PageResponse;
 import com.jb.identity_service.dto.response.UserResponse;
 import com.jb.identity_service.entity.Role;
 import com.jb.identity_service.entity.User;
 import com.jb.identity_service.exception.AppException;
 import com.jb.identity_service.exception.ErrorCode;
 import com.jb.identity_service.mapper.UserMapper;
+import com.jb.identity_service.mapper.UserRowAssembler;
 import com.jb.identity_service.repository.RoleRepository;
 import com.jb.identity_service.repository.UserRepository;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
-import org.springframework.util.StringUtils;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class UserService {
+    static final int MAX_PAGE_SIZE = 100;
+
     UserRepository userRepository;
     UserMapper userMapper;
-    PasswordEncoder passwordEncoder;
+    UserRowAssembler userRowAssembler;
+    PasswordHashingService passwordHashingService;
     RoleRepository roleRepository;
+    ReadYourWrites readYourWrites;
 
     public UserResponse createUser(UserCreationRequest request) {
 
@@ -42,7 +56,7 @@ public class UserService {
             throw new AppException(ErrorCode.USER_EXISTED);
         }
         User user = userMapper.toUser(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         var roles = new HashSet<Role>();
         roleRepository.findById(PredefinedRole.USER_ROLE).ifPresent(roles::add);
@@ -54,10 +68,12 @@ public class UserService {
         } catch (DataIntegrityViolationException e) {
             throw new AppException(ErrorCode.USER_EXISTED);
         }
+        readYourWrites.recordWrite(user.getId(), user.getUsername());
 
         return userMapper.toUserResponse(user);
     }
 
+    @Transactional
     public void createPassword(String password) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         User user =
@@ -65,43 +81,89 @@ public class UserService {
         if (user.getPassword() != null) {
             throw new AppException(ErrorCode.PASSWORD_ALREADY_CREATED);
         }
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashingService.encode(password));
         userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getMyInfo() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user =
-                userRepository.findByUsername(username).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        var userResponse = userMapper.toUserResponse(user);
-        userResponse.setNoPassword(!StringUtils.hasText(user.getPassword()));
-        return userResponse;
+        List<UserRoleRow> rows = readYourWrites.read(username, () -> userRepository.findRowsByUsername(username));
+        return userRowAssembler
+                .toUserResponse(rows, permissionsOf(rows))
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream().map(userMapper::toUserResponse).toList();
+    @Transactional(readOnly = true)
+    public PageResponse<UserResponse> getAllUsers(String cursor, int size, String role, String usernamePrefix) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        String prefixPattern = StringUtils.hasText(usernamePrefix)
+                ? usernamePrefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%"
+                : null;
+        // One extra row tells whether there is a next page without a count query
+        List<String> ids = userRepository.findPageIds(
+                decodeCursor(cursor), prefixPattern, StringUtils.hasText(role) ? role : null, Limit.of(pageSize + 1));
+
+        boolean hasNext = ids.size() > pageSize;
+        List<UserRoleRow> rows =
+                ids.isEmpty() ? List.of() : userRepository.findRowsByIdIn(hasNext ? ids.subList(0, pageSize) : ids);
+        List<UserResponse> items = userRowAssembler.toUserResponses(rows, permissionsOf(rows));
+        return PageResponse.<UserResponse>builder()
+                .items(items)
+                .nextCursor(hasNext ? encodeCursor(items.getLast().getUsername()) : null)
+                .build();
+    }
+
+    /** The permissions of every role in {@code rows}, read once per distinct role rather than per user. */
+    private List<RolePermissionRow> permissionsOf(List<UserRoleRow> rows) {
+        Set<String> roleNames = rows.stream()
+                .map(UserRoleRow::roleName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return roleNames.isEmpty() ? List.of() : roleRepository.findPermissionRowsByRoleNameIn(roleNames);
+    }
+
+    private static String encodeCursor(String username) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
     }
 
     @PostAuthorize("returnObject.username == authentication.name or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public UserResponse getUserById(String id) {
-        return userMapper.toUserResponse(
-                userRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND)));
+        List<UserRoleRow> rows = readYourWrites.read(id, () -> userRepository.findRowsById(id));
+        return userRowAssembler
+                .toUserResponse(rows, permissionsOf(rows))
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
     }
 
     public void deleteUser(String id) {
         userRepository.deleteById(id);
     }
 
+    @Transactional
     public UserResponse updateUser(String id, UserUpdateRequest userUpdateRequest) {
         User user = userRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
         userMapper.updateUser(user, userUpdateRequest);
         if (userUpdateRequest.getPassword() != null) {
-            user.setPassword(passwordEncoder.encode(userUpdateRequest.getPassword()));
+            user.setPassword(passwordHashingService.encode(userUpdateRequest.getPassword()));
         }
         var roles = roleRepository.findAllById(userUpdateRequest.getRoles());
         user.setRoles(new HashSet<>(roles));
 
-        return userMapper.toUserResponse(userRepository.save(user));
+        user = userRepository.save(user);
+        readYourWrites.recordWrite(user.getId(), user.getUsername());
+        return userMapper.toUserResponse(user);
     }
 }
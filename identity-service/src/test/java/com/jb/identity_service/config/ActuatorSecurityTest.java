@@ -0,0 +1,65 @@
+package com.jb.identity_service.config;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+public class ActuatorSecurityTest {
+    private static final int SERVER_PORT = freePort();
+    private static final int MANAGEMENT_PORT = freePort();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void ports(DynamicPropertyRegistry registry) {
+        registry.add("server.port", () -> SERVER_PORT);
+        registry.add("management.server.port", () -> MANAGEMENT_PORT);
+    }
+
+    @Test
+    void prometheus_anonymousOnApplicationPort_unauthorized() throws Exception {
+        // WHEN
+        int status = get(SERVER_PORT, "/identity/actuator/prometheus");
+
+        // THEN
+        Assertions.assertThat(status).isEqualTo(401);
+    }
+
+    @Test
+    void prometheus_anonymousOnManagementPort_scraped() throws Exception {
+        // WHEN
+        int status = get(MANAGEMENT_PORT, "/actuator/prometheus");
+
+        // THEN
+        Assertions.assertThat(status).isEqualTo(200);
+    }
+
+    private int get(int port, String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int freePort() {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
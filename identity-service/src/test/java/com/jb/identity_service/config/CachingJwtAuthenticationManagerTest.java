@@ -0,0 +1,156 @@
+package com.jb.identity_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+
+import com.jb.identity_service.entity.InvalidatedToken;
+import com.jb.identity_service.repository.InvalidatedTokenRepository;
+import com.jb.identity_service.service.AuthenticationMetrics;
+import com.jb.identity_service.service.PermissionDictionary;
+import com.jb.identity_service.service.TokenRevocationCache;
+import com.jb.identity_service.service.TokenSigningKeys;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CachingJwtAuthenticationManagerTest {
+    private static final String SIGNER_KEY = "QiaHFNbjkigFCC7wlRqWZBAnqgpgcq8WNXmeRa7x1dS1yEkFUOATnAqDlSnfSDSb";
+
+    private TokenSigningKeys signingKeys;
+    private TokenRevocationCache tokenRevocationCache;
+    private CustomJwtDecoder decoder;
+    private MeterRegistry meterRegistry;
+    private AuthenticationMetrics metrics;
+
+    @BeforeEach
+    void initData() throws Exception {
+        var invalidatedTokenRepository = Mockito.mock(InvalidatedTokenRepository.class);
+        Mockito.when(invalidatedTokenRepository.findAllByExpiryTimeAfter(
+                        ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+        tokenRevocationCache = new TokenRevocationCache(
+                invalidatedTokenRepository, 100, Duration.ofHours(1), Duration.ofSeconds(10), 3600, 360000);
+        tokenRevocationCache.warmUp();
+        signingKeys = new TokenSigningKeys("HS512", SIGNER_KEY, "", "", false);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new AuthenticationMetrics(meterRegistry, tokenRevocationCache);
+        decoder = Mockito.spy(new CustomJwtDecoder(signingKeys, tokenRevocationCache, metrics));
+    }
+
+    private CachingJwtAuthenticationManager manager(int maxEntries) {
+        return new CachingJwtAuthenticationManager(
+                decoder,
+                new ScopeAuthoritiesConverter(Mockito.mock(PermissionDictionary.class)),
+                tokenRevocationCache,
+                metrics,
+                meterRegistry,
+                maxEntries);
+    }
+
+    private String token(String tokenId) throws Exception {
+        return signingKeys.sign(new JWTClaimsSet.Builder()
+                .subject("testuser")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                .jwtID(tokenId)
+                .claim("scope", "ROLE_USER READ_DATA")
+                .build());
+    }
+
+    private double gets(String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tags("cache", "authentication", "result", result)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void authenticate_sameTokenTwice_decodedOnce() throws Exception {
+        // GIVEN
+        var manager = manager(100);
+        String token = token("jti-1");
+        var secondRequest = new BearerTokenAuthenticationToken(token);
+        secondRequest.setDetails("second-request");
+
+        // WHEN
+        var first = manager.authenticate(new BearerTokenAuthenticationToken(token));
+        var second = manager.authenticate(secondRequest);
+
+        // THEN
+        Mockito.verify(decoder, Mockito.times(1)).decode(token);
+        Assertions.assertThat(second.getName()).isEqualTo("testuser");
+        Assertions.assertThat(second.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "READ_DATA");
+        Assertions.assertThat(second).isNotSameAs(first);
+        Assertions.assertThat(second.getDetails()).isEqualTo("second-request");
+        Assertions.assertThat(gets("hit")).isEqualTo(1);
+        Assertions.assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void authenticate_revokedAfterCaching_rejected() throws Exception {
+        // GIVEN
+        var manager = manager(100);
+        String token = token("jti-1");
+        manager.authenticate(new BearerTokenAuthenticationToken(token));
+
+        // WHEN
+        tokenRevocationCache.revoke(InvalidatedToken.builder()
+                .id("jti-1")
+                .expiryTime(Date.from(Instant.now().plusSeconds(60)))
+                .build());
+
+        // THEN
+        assertThrows(
+                AuthenticationException.class, () -> manager.authenticate(new BearerTokenAuthenticationToken(token)));
+        Assertions.assertThat(meterRegistry.get("cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void authenticate_moreTokensThanMaxEntries_sizeBounded() throws Exception {
+        // GIVEN
+        var manager = manager(2);
+
+        // WHEN
+        for (int i = 0; i < 5; i++) {
+            manager.authenticate(new BearerTokenAuthenticationToken(token("jti-" + i)));
+        }
+
+        // THEN
+        Assertions.assertThat(meterRegistry.get("cache.size").gauge().value()).isLessThanOrEqualTo(2);
+        Assertions.assertThat(gets("miss")).isEqualTo(5);
+    }
+
+    @Test
+    void authenticate_fullOfLiveTokens_evictsBatchNotEverything() throws Exception {
+        // GIVEN
+        var manager = manager(20);
+        for (int i = 0; i < 20; i++) {
+            manager.authenticate(new BearerTokenAuthenticationToken(token("jti-" + i)));
+        }
+
+        // WHEN
+        manager.authenticate(new BearerTokenAuthenticationToken(token("jti-new")));
+
+        // THEN
+        Assertions.assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(19);
+        Assertions.assertThat(meterRegistry.get("cache.evictions").counter().count())
+                .isEqualTo(2);
+    }
+}
@@ -0,0 +1,47 @@
+package com.jb.identity_service.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+public class CalibratedPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_costDiffersFromTarget_true() {
+        // GIVEN
+        var encoder = new CalibratedPasswordEncoder(5, Map.of());
+        String lowerCost = new BCryptPasswordEncoder(4).encode("password123");
+        String higherCost = new BCryptPasswordEncoder(6).encode("password123");
+        String sameCost = encoder.encode("password123");
+
+        // WHEN & THEN
+        Assertions.assertThat(encoder.upgradeEncoding(lowerCost)).isTrue();
+        Assertions.assertThat(encoder.upgradeEncoding(higherCost)).isTrue();
+        Assertions.assertThat(encoder.upgradeEncoding(sameCost)).isFalse();
+        Assertions.assertThat(encoder.upgradeEncoding(null)).isFalse();
+        Assertions.assertThat(encoder.matches("password123", higherCost)).isTrue();
+    }
+
+    @Test
+    void calibrate_tightTarget_staysAtMinimumAndRecordsTimings() {
+        // WHEN
+        var encoder = CalibratedPasswordEncoder.calibrate(4, 12, Duration.ofNanos(1));
+
+        // THEN
+        Assertions.assertThat(encoder.getStrength()).isEqualTo(4);
+        Assertions.assertThat(encoder.getTimings()).containsOnlyKeys(4);
+    }
+
+    @Test
+    void calibrate_generousTarget_picksHighestCostWithinTarget() {
+        // WHEN
+        var encoder = CalibratedPasswordEncoder.calibrate(4, 6, Duration.ofSeconds(10));
+
+        // THEN
+        Assertions.assertThat(encoder.getStrength()).isEqualTo(6);
+        Assertions.assertThat(encoder.getTimings()).containsOnlyKeys(4, 5, 6);
+    }
+}
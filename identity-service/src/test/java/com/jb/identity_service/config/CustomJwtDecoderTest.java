@@ -0,0 +1,176 @@
+package com.jb.identity_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.jb.identity_service.service.AuthenticationMetrics;
+import com.jb.identity_service.service.TokenRevocationCache;
+import com.jb.identity_service.service.TokenSigningKeys;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CustomJwtDecoderTest {
+    private static final String SIGNER_KEY = "QiaHFNbjkigFCC7wlRqWZBAnqgpgcq8WNXmeRa7x1dS1yEkFUOATnAqDlSnfSDSb";
+
+    private TokenRevocationCache tokenRevocationCache;
+    private ECKey previousKey;
+    private ECKey activeKey;
+    private MeterRegistry meterRegistry;
+    private AuthenticationMetrics metrics;
+    private CustomJwtDecoder decoder;
+
+    @BeforeEach
+    void initData() throws Exception {
+        tokenRevocationCache = Mockito.mock(TokenRevocationCache.class);
+        previousKey = new ECKeyGenerator(Curve.P_256).keyID("key-1").generate();
+        activeKey = new ECKeyGenerator(Curve.P_256).keyID("key-2").generate();
+        var signingKeys = new TokenSigningKeys(
+                "ES256", SIGNER_KEY, new JWKSet(List.of(previousKey, activeKey)).toString(false), "key-2", false);
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new AuthenticationMetrics(meterRegistry, tokenRevocationCache);
+        decoder = new CustomJwtDecoder(signingKeys, tokenRevocationCache, metrics);
+    }
+
+    private double outcomes(String outcome) {
+        var counter = meterRegistry
+                .find("auth.outcome")
+                .tags("flow", "resource", "outcome", outcome)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private String token(String key, Instant expiry) throws Exception {
+        var signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claims(expiry));
+        signedJWT.sign(new MACSigner(key.getBytes()));
+        return signedJWT.serialize();
+    }
+
+    private String token(ECKey key, Instant expiry) throws Exception {
+        var signedJWT = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(key.getKeyID()).build(), claims(expiry));
+        signedJWT.sign(new ECDSASigner(key));
+        return signedJWT.serialize();
+    }
+
+    private static JWTClaimsSet claims(Instant expiry) {
+        return new JWTClaimsSet.Builder()
+                .subject("testuser")
+                .issueTime(Date.from(expiry.minusSeconds(60)))
+                .expirationTime(Date.from(expiry))
+                .jwtID("jti-1")
+                .claim("scope", "ROLE_USER")
+                .build();
+    }
+
+    @Test
+    void decode_validToken_success() throws Exception {
+        // GIVEN
+        String token = token(SIGNER_KEY, Instant.now().plusSeconds(60));
+
+        // WHEN
+        var jwt = decoder.decode(token);
+
+        // THEN
+        Assertions.assertThat(jwt.getSubject()).isEqualTo("testuser");
+        Mockito.verify(tokenRevocationCache).isRevoked("jti-1");
+        Assertions.assertThat(outcomes("valid")).isEqualTo(1);
+        Assertions.assertThat(meterRegistry
+                        .get("auth.stage")
+                        .tags("flow", "resource", "stage", "decode")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void decode_revokedToken_fail() throws Exception {
+        // GIVEN
+        String token = token(SIGNER_KEY, Instant.now().plusSeconds(60));
+        Mockito.when(tokenRevocationCache.isRevoked("jti-1")).thenReturn(true);
+
+        // WHEN & THEN
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        Assertions.assertThat(outcomes("revoked")).isEqualTo(1);
+    }
+
+    @Test
+    void decode_expiredToken_fail() throws Exception {
+        // GIVEN
+        String token = token(SIGNER_KEY, Instant.now().minusSeconds(5));
+
+        // WHEN & THEN
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        Mockito.verifyNoInteractions(tokenRevocationCache);
+        Assertions.assertThat(outcomes("expired")).isEqualTo(1);
+    }
+
+    @Test
+    void decode_wrongSignature_fail() throws Exception {
+        // GIVEN
+        String token = token(SIGNER_KEY.toLowerCase(), Instant.now().plusSeconds(60));
+
+        // WHEN & THEN
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        Mockito.verifyNoInteractions(tokenRevocationCache);
+        Assertions.assertThat(outcomes("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    void decode_es256TokenFromActiveOrPreviousKey_success() throws Exception {
+        // GIVEN
+        String active = token(activeKey, Instant.now().plusSeconds(60));
+        String previous = token(previousKey, Instant.now().plusSeconds(60));
+
+        // WHEN & THEN
+        Assertions.assertThat(decoder.decode(active).getSubject()).isEqualTo("testuser");
+        Assertions.assertThat(decoder.decode(previous).getSubject()).isEqualTo("testuser");
+    }
+
+    @Test
+    void decode_es256TokenFromUnknownKey_fail() throws Exception {
+        // GIVEN a key under a published kid that is not the published key
+        var forged = new ECKeyGenerator(Curve.P_256).keyID("key-2").generate();
+        String token = token(forged, Instant.now().plusSeconds(60));
+
+        // WHEN & THEN
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        Mockito.verifyNoInteractions(tokenRevocationCache);
+    }
+
+    @Test
+    void decode_hs512TokenWithoutSignerKey_fail() throws Exception {
+        // GIVEN the HMAC secret has been retired after the migration
+        var signingKeys = new TokenSigningKeys("ES256", "", new JWKSet(activeKey).toString(false), "key-2", false);
+        var migratedDecoder = new CustomJwtDecoder(signingKeys, tokenRevocationCache, metrics);
+        String token = token(SIGNER_KEY, Instant.now().plusSeconds(60));
+
+        // WHEN & THEN
+        assertThrows(JwtException.class, () -> migratedDecoder.decode(token));
+    }
+
+    @Test
+    void signingKeys_es256WithoutKeySet_fail() {
+        // WHEN & THEN no per-process key is generated unless a dev key is allowed
+        assertThrows(IllegalStateException.class, () -> new TokenSigningKeys("ES256", SIGNER_KEY, "", "", false));
+    }
+}
@@ -0,0 +1,175 @@
+package com.jb.identity_service.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.request.AuthenticationRequest;
+import com.jb.identity_service.dto.request.UserUpdateRequest;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.repository.UserRepository;
+import com.jb.identity_service.service.AuthenticationService;
+import com.jb.identity_service.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and its replica. Replication is a snapshot of the primary loaded
+ * into the replica on demand, so anything written after {@link #replicate} is only visible on the primary.
+ */
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.datasource.url=" + DataSourceRoutingTest.PRIMARY_URL,
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "datasource.routing.enabled=true",
+            "datasource.routing.replicas=" + DataSourceRoutingTest.REPLICA_URL,
+            "datasource.routing.read-your-writes-window=PT1M",
+            "security.login-throttle.enabled=false",
+            "security.password-hashing.bcrypt-strength=4"
+        })
+@WithMockUser(roles = "ADMIN")
+public class DataSourceRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MYSQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MYSQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void initData() throws Exception {
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                // A fresh username, so the read-your-writes window of an earlier test does not apply
+                .username("routed-" + UUID.randomUUID().toString().substring(0, 8))
+                .firstName("Original")
+                .password(passwordEncoder.encode("original-password"))
+                .roles(Set.of())
+                .build());
+        replicate();
+    }
+
+    @Test
+    void getUserById_writtenBehindReplica_readsReplica() {
+        // GIVEN
+        user.setFirstName("Unreplicated");
+        userRepository.save(user);
+
+        // WHEN
+        var response = userService.getUserById(user.getId());
+
+        // THEN
+        Assertions.assertThat(response.getFirstName()).isEqualTo("Original");
+    }
+
+    @Test
+    void getUserById_afterUpdateUser_readsOwnWrite() {
+        // GIVEN
+        userService.updateUser(
+                user.getId(),
+                UserUpdateRequest.builder()
+                        .firstName("Updated")
+                        .roles(List.of())
+                        .build());
+
+        // WHEN
+        var response = userService.getUserById(user.getId());
+
+        // THEN
+        Assertions.assertThat(response.getFirstName()).isEqualTo("Updated");
+    }
+
+    @Test
+    void isAuthenticated_passwordChangedBehindReplica_readsReplica() {
+        // GIVEN
+        user.setPassword(passwordEncoder.encode("unreplicated-password"));
+        userRepository.save(user);
+
+        // WHEN
+        var response = authenticationService.isAuthenticated(login("original-password"), "127.0.0.1");
+
+        // THEN
+        Assertions.assertThat(response.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void isAuthenticated_afterUpdateUser_readsOwnWrite() {
+        // GIVEN
+        userService.updateUser(
+                user.getId(),
+                UserUpdateRequest.builder()
+                        .password("updated-password")
+                        .roles(List.of())
+                        .build());
+
+        // WHEN
+        var response = authenticationService.isAuthenticated(login("updated-password"), "127.0.0.1");
+
+        // THEN
+        Assertions.assertThat(response.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void close_replicaPoolsClosedAndPrimaryLeftOpen() {
+        // GIVEN
+        var primary = Mockito.mock(HikariDataSource.class);
+        var replica = new HikariDataSource();
+        replica.setJdbcUrl(REPLICA_URL);
+        replica.setUsername("sa");
+        replica.setPassword("sa");
+        var routing = new ReadWriteRoutingDataSource(primary, List.of(replica));
+
+        // WHEN
+        routing.close();
+
+        // THEN
+        Assertions.assertThat(replica.isClosed()).isTrue();
+        Mockito.verify(primary, Mockito.never()).close();
+    }
+
+    private AuthenticationRequest login(String password) {
+        return AuthenticationRequest.builder()
+                .username(user.getUsername())
+                .password(password)
+                .build();
+    }
+
+    private static void replicate() throws Exception {
+        Path snapshot = Files.createTempFile("routing-primary", ".sql");
+        try (var primary = DriverManager.getConnection(PRIMARY_URL, "sa", "sa");
+                var replica = DriverManager.getConnection(REPLICA_URL, "sa", "sa")) {
+            primary.createStatement().execute("SCRIPT TO '" + snapshot + "'");
+            replica.createStatement().execute("DROP ALL OBJECTS");
+            replica.createStatement().execute("RUNSCRIPT FROM '" + snapshot + "'");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not copy the primary into the replica", e);
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+}
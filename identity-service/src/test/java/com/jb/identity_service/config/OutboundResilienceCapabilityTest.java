@@ -0,0 +1,155 @@
+package com.jb.identity_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.request.ExchangeTokenRequest;
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.repository.httpclient.OutboundIdentityClient;
+import com.jb.identity_service.repository.httpclient.OutboundUserClient;
+import com.jb.identity_service.support.GoogleStubServer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.cloud.openfeign.client.config.outbound-identity-client.read-timeout=300",
+            "spring.cloud.openfeign.client.config.outbound-user-client.read-timeout=5000",
+            "outbound.resilience.bulkhead.max-concurrent-calls=2",
+            "outbound.resilience.circuit-breaker.sliding-window-size=2",
+            "outbound.resilience.circuit-breaker.minimum-number-of-calls=2",
+            "outbound.resilience.circuit-breaker.wait-in-open-state=1h",
+            "spring.jpa.hibernate.ddl-auto=create-drop"
+        })
+public class OutboundResilienceCapabilityTest {
+    private static final GoogleStubServer GOOGLE = startGoogleStub();
+
+    @Autowired
+    private OutboundIdentityClient outboundIdentityClient;
+
+    @Autowired
+    private OutboundUserClient outboundUserClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static GoogleStubServer startGoogleStub() {
+        try {
+            return new GoogleStubServer(Duration.ZERO);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void googleUrls(DynamicPropertyRegistry registry) {
+        registry.add("outbound.identity.token-url", GOOGLE::baseUrl);
+        registry.add("outbound.identity.userinfo-url", GOOGLE::baseUrl);
+    }
+
+    @AfterAll
+    static void stopGoogleStub() {
+        GOOGLE.close();
+    }
+
+    @BeforeEach
+    void initData() {
+        GOOGLE.setLatency(Duration.ZERO);
+        GOOGLE.resetCounts();
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> circuitBreaker.reset());
+    }
+
+    private void exchangeToken() {
+        outboundIdentityClient.exchangeToken(
+                ExchangeTokenRequest.builder().code("code").clientId("client").build());
+    }
+
+    @Test
+    void exchangeToken_slowerThanReadTimeout_failsFast() {
+        // GIVEN
+        GOOGLE.setLatency(Duration.ofSeconds(3));
+        long started = System.nanoTime();
+
+        // WHEN
+        var exception = assertThrows(AppException.class, this::exchangeToken);
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.OUTBOUND_SERVICE_UNAVAILABLE);
+        Assertions.assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void exchangeToken_repeatedTimeouts_circuitOpensWithoutCallingGoogle() {
+        // GIVEN
+        GOOGLE.setLatency(Duration.ofSeconds(3));
+        assertThrows(AppException.class, this::exchangeToken);
+        assertThrows(AppException.class, this::exchangeToken);
+        int callsBefore = GOOGLE.requestCount("/token");
+        GOOGLE.setLatency(Duration.ZERO);
+
+        // WHEN
+        var exception = assertThrows(AppException.class, this::exchangeToken);
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.OUTBOUND_SERVICE_UNAVAILABLE);
+        Assertions.assertThat(GOOGLE.requestCount("/token")).isEqualTo(callsBefore);
+        Assertions.assertThat(outboundUserClient.getUserInfo("json", "other-client-unaffected"))
+                .isNotNull();
+    }
+
+    @Test
+    void getUserInfo_moreCallersThanBulkhead_excessRejectedImmediately() throws Exception {
+        // GIVEN
+        GOOGLE.setLatency(Duration.ofMillis(500));
+
+        // WHEN
+        List<Future<?>> calls;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            calls = IntStream.range(0, 5)
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> outboundUserClient.getUserInfo("json", "user" + i)))
+                    .toList();
+        }
+
+        // THEN
+        long rejected = calls.stream()
+                .filter(call -> call.state() == Future.State.FAILED
+                        && call.exceptionNow() instanceof AppException e
+                        && e.getErrorCode() == ErrorCode.OUTBOUND_SERVICE_UNAVAILABLE)
+                .count();
+        Assertions.assertThat(rejected).isEqualTo(3);
+        Assertions.assertThat(GOOGLE.requestCount("/oauth2/v1/userinfo")).isEqualTo(2);
+        Assertions.assertThat(meterRegistry
+                        .get("resilience4j.bulkhead.max.allowed.concurrent.calls")
+                        .tag("name", "outbound-user-client")
+                        .gauge()
+                        .value())
+                .isEqualTo(2);
+        Assertions.assertThat(meterRegistry
+                        .get("resilience4j.circuitbreaker.state")
+                        .tag("name", "outbound-user-client")
+                        .gauges())
+                .isNotEmpty();
+    }
+}
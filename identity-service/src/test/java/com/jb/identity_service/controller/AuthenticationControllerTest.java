@@ -0,0 +1,60 @@
+package com.jb.identity_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.jb.identity_service.service.AuthenticationService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@WithMockUser(roles = "GATEWAY")
+public class AuthenticationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    @Test
+    void introspectAll_tokensMissing_batchInvalid() throws Exception {
+        // WHEN
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/introspect/batch")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content("{}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1014))
+                .andExpect(
+                        MockMvcResultMatchers.jsonPath("message").value("Batch must contain between 1 and 500 tokens"));
+
+        // THEN
+        Mockito.verify(authenticationService, Mockito.never())
+                .introspectAll(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void introspectAll_tokensEmpty_batchInvalid() throws Exception {
+        // WHEN
+        mockMvc.perform(MockMvcRequestBuilders.post("/auth/introspect/batch")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content("{\"tokens\":[]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1014));
+
+        // THEN
+        Mockito.verify(authenticationService, Mockito.never())
+                .introspectAll(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+}
@@ -0,0 +1,62 @@
+package com.jb.identity_service.controller;
+
+import java.util.Date;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.jb.identity_service.service.TokenSigningKeys;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "jwt.signing.algorithm=ES256",
+            "jwt.signing.generate-dev-key=true",
+            "jwt.signing.jwks-max-age=PT10M",
+            "spring.jpa.hibernate.ddl-auto=create-drop"
+        })
+public class JwksControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenSigningKeys signingKeys;
+
+    @Test
+    void jwks_anonymous_publicKeysVerifyIssuedTokens() throws Exception {
+        // GIVEN
+        String token = signingKeys.sign(new JWTClaimsSet.Builder()
+                .subject("testuser")
+                .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                .build());
+
+        // WHEN
+        String body = mockMvc.perform(MockMvcRequestBuilders.get("/.well-known/jwks.json"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // THEN only public EC keys are published, and the token's kid finds the key that verifies it
+        Assertions.assertThat(body).doesNotContain("\"d\"", "\"k\"");
+        var signedJWT = SignedJWT.parse(token);
+        var key = (ECKey) JWKSet.parse(body).getKeyByKeyId(signedJWT.getHeader().getKeyID());
+        Assertions.assertThat(signedJWT.verify(new ECDSAVerifier(key))).isTrue();
+    }
+}
@@ -24,7 +24,7 @@ import com.jb.identity_service.service.UserService;
 
 @SpringBootTest
 @AutoConfigureMockMvc
-@TestPropertySource("/test.properties")
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
 public class UserControllerTest {
 
     @Autowired
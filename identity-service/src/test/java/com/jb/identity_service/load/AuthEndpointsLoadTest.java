@@ -0,0 +1,289 @@
+package com.jb.identity_service.load;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jb.identity_service.constant.PredefinedRole;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.repository.RoleRepository;
+
+/**
+ * Drives an open workload mix over {@code /auth/token}, {@code /auth/introspect}, {@code /auth/refresh} and
+ * {@code /auth/logout} on one node backed by in-memory H2, after seeding {@code load.users} users. Writes an HDR
+ * percentile distribution per endpoint plus a results file in baseline format to {@code target/load-test}, and
+ * fails when an endpoint's throughput or p99 is worse than {@code load/auth-baseline.properties} by more than
+ * {@code load.tolerance}. To accept new numbers, take the worst of three runs' results files into the baseline and
+ * update its header, which records how the current numbers were captured.
+ *
+ * <p>Refresh and logout each use up a token from a shared pool that token and refresh calls refill, so a mix with
+ * as many token calls as logouts keeps the pool steady. Introspection uses a separate set that is never revoked.
+ */
+@Tag("load")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthEndpointsLoadTest {
+    static final String PASSWORD = "password123";
+    static final int INTROSPECT_TOKENS = 20;
+    static final Path REPORT_DIR = Path.of("target", "load-test");
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${load.users:1000}")
+    int users;
+
+    @Value("${load.tokens:100}")
+    int pooledTokens;
+
+    @Value("${load.rate:20}")
+    double rate;
+
+    @Value("${load.warmup:PT30S}")
+    Duration warmup;
+
+    @Value("${load.duration:PT1M}")
+    Duration duration;
+
+    @Value("${load.mix:token=5,introspect=80,refresh=10,logout=5}")
+    String mix;
+
+    @Value("${load.baseline:/load/auth-baseline.properties}")
+    String baselineResource;
+
+    @Value("${load.tolerance:0.5}")
+    double tolerance;
+
+    HttpClient client;
+    Queue<String> tokens = new ConcurrentLinkedQueue<>();
+    List<String> introspectTokens;
+
+    @BeforeEach
+    void initData() {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        roleRepository.save(Role.builder().name(PredefinedRole.USER_ROLE).build());
+
+        // One hash for everyone: seeding should not take as long as the run itself
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<String> ids = IntStream.range(0, users)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toList();
+        List<Integer> indexes = IntStream.range(0, users).boxed().toList();
+        jdbcTemplate.batchUpdate(
+                "insert into user (id, username, password) values (?, ?, ?)", indexes, 1000, (ps, i) -> {
+                    ps.setString(1, ids.get(i));
+                    ps.setString(2, username(i));
+                    ps.setString(3, hash);
+                });
+        jdbcTemplate.batchUpdate("insert into user_roles (user_id, roles_name) values (?, ?)", ids, 1000, (ps, id) -> {
+            ps.setString(1, id);
+            ps.setString(2, PredefinedRole.USER_ROLE);
+        });
+
+        introspectTokens = IntStream.range(0, INTROSPECT_TOKENS)
+                .parallel()
+                .mapToObj(i -> login())
+                .toList();
+        IntStream.range(0, pooledTokens).parallel().mapToObj(i -> login()).forEach(tokens::add);
+        Assertions.assertThat(introspectTokens).doesNotContainNull();
+        Assertions.assertThat(tokens).doesNotContainNull();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+    }
+
+    @Test
+    void authEndpoints_openWorkload_withinBaseline() throws Exception {
+        // GIVEN
+        var workload = new OpenWorkload(
+                mix,
+                Map.of(
+                        "token", () -> token(),
+                        "introspect", () -> introspect(),
+                        "refresh", () -> refresh(),
+                        "logout", () -> logout()));
+        workload.run(rate, warmup);
+
+        // WHEN
+        List<OpenWorkload.Result> results = workload.run(rate, duration);
+
+        // THEN
+        report(results);
+        Assertions.assertThat(results).allSatisfy(result -> Assertions.assertThat(result.errors())
+                .as(result.name() + " errors")
+                .isZero());
+        compareWithBaseline(results);
+    }
+
+    private String username(int index) {
+        return "load%06d".formatted(index);
+    }
+
+    private String login() {
+        var response = post(
+                "/auth/token",
+                Map.of("username", username(ThreadLocalRandom.current().nextInt(users)), "password", PASSWORD));
+        return response == null ? null : response.path("token").asText();
+    }
+
+    private boolean token() {
+        String token = login();
+        return token != null && tokens.add(token);
+    }
+
+    private boolean introspect() {
+        String token = introspectTokens.get(ThreadLocalRandom.current().nextInt(introspectTokens.size()));
+        var response = post("/auth/introspect", Map.of("token", token));
+        return response != null && response.path("valid").asBoolean();
+    }
+
+    private boolean refresh() {
+        String token = tokens.poll();
+        if (token == null) {
+            return false;
+        }
+        var response = post("/auth/refresh", Map.of("token", token));
+        if (response == null) {
+            return false;
+        }
+        tokens.add(response.path("token").asText());
+        return true;
+    }
+
+    private boolean logout() {
+        String token = tokens.poll();
+        return token != null && post("/auth/logout", Map.of("token", token)) != null;
+    }
+
+    /** The {@code result} of a successful call, or {@code null} for any other status. */
+    private JsonNode post(String path, Map<String, String> body) {
+        try {
+            var response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/identity" + path))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                            .timeout(Duration.ofMinutes(1))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return null;
+            }
+            return objectMapper.readTree(response.body()).path("result");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void report(List<OpenWorkload.Result> results) throws Exception {
+        Files.createDirectories(REPORT_DIR);
+        Properties measured = new Properties();
+        measured.setProperty("rate", String.valueOf(rate));
+        measured.setProperty("mix", mix);
+        System.out.printf("%nOpen workload at %.0f req/s for %s, mix %s%n", rate, duration, mix);
+        System.out.printf(
+                "%-11s %8s %7s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (var result : results) {
+            var latencies = result.latencies();
+            System.out.printf(
+                    "%-11s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.name(),
+                    latencies.getTotalCount(),
+                    result.errors(),
+                    result.throughput(),
+                    latencies.getValueAtPercentile(50) / 1000.0,
+                    latencies.getValueAtPercentile(90) / 1000.0,
+                    result.p99Millis(),
+                    latencies.getValueAtPercentile(99.9) / 1000.0,
+                    latencies.getMaxValue() / 1000.0);
+            try (var out = new PrintStream(Files.newOutputStream(REPORT_DIR.resolve(result.name() + ".hgrm")))) {
+                latencies.outputPercentileDistribution(out, 1000.0);
+            }
+            measured.setProperty(result.name() + ".throughput", "%.1f".formatted(result.throughput()));
+            measured.setProperty(result.name() + ".p99-ms", "%.2f".formatted(result.p99Millis()));
+        }
+        try (Writer out = Files.newBufferedWriter(REPORT_DIR.resolve("auth-results.properties"))) {
+            measured.store(out, "One run; src/test/resources/load/auth-baseline.properties keeps the worst of three");
+        }
+    }
+
+    private void compareWithBaseline(List<OpenWorkload.Result> results) throws Exception {
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream(baselineResource)) {
+            if (in == null) {
+                System.out.println("No baseline at " + baselineResource + ", nothing to compare");
+                return;
+            }
+            baseline.load(in);
+        }
+        if (Double.parseDouble(baseline.getProperty("rate")) != rate || !mix.equals(baseline.getProperty("mix"))) {
+            System.out.println("Baseline was recorded for another rate or mix, nothing to compare");
+            return;
+        }
+
+        var softly = new SoftAssertions();
+        for (var result : results) {
+            String throughput = baseline.getProperty(result.name() + ".throughput");
+            if (throughput != null) {
+                softly.assertThat(result.throughput())
+                        .as(result.name() + " req/s against baseline " + throughput)
+                        .isGreaterThanOrEqualTo(Double.parseDouble(throughput) * (1 - tolerance));
+            }
+            String p99 = baseline.getProperty(result.name() + ".p99-ms");
+            if (p99 != null) {
+                softly.assertThat(result.p99Millis())
+                        .as(result.name() + " p99 ms against baseline " + p99)
+                        .isLessThanOrEqualTo(Double.parseDouble(p99) * (1 + tolerance));
+            }
+        }
+        softly.assertAll();
+    }
+}
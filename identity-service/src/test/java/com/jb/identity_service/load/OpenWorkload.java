@@ -0,0 +1,116 @@
+package com.jb.identity_service.load;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule whether or not earlier ones have finished, so a
+ * server that falls behind builds a backlog instead of slowing the generator down. Latency is measured from each
+ * request's scheduled start, which keeps the queueing delay in the numbers (no coordinated omission). The mix is
+ * drawn from a fixed seed, so every run issues the same sequence and per-operation counts are comparable.
+ */
+final class OpenWorkload {
+    private static final long SEED = 42;
+    private static final long HIGHEST_LATENCY_MICROS = Duration.ofMinutes(2).toNanos() / 1000;
+
+    private final Map<String, Callable<Boolean>> operations;
+    private final String[] names;
+    private final int[] cumulativeWeights;
+
+    /**
+     * @param mix relative weight per operation name, e.g. {@code token=5,introspect=80}
+     * @param operations calls returning whether the response was a success
+     */
+    OpenWorkload(String mix, Map<String, Callable<Boolean>> operations) {
+        this.operations = operations;
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (!operations.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + parts[0]);
+            }
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        names = weights.keySet().toArray(String[]::new);
+        cumulativeWeights = new int[names.length];
+        int total = 0;
+        for (int i = 0; i < names.length; i++) {
+            total += weights.get(names[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /** Offers {@code ratePerSecond} requests for {@code duration}, then waits for the last one to finish. */
+    List<Result> run(double ratePerSecond, Duration duration) {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (String name : names) {
+            stats.put(name, new Stats());
+        }
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        long requests = duration.toNanos() / interval;
+        var random = new Random(SEED);
+        long started = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduled = started + i * interval;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String name = pick(random);
+                Callable<Boolean> operation = operations.get(name);
+                Stats operationStats = stats.get(name);
+                executor.submit(() -> operationStats.record(call(operation), System.nanoTime() - scheduled));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().toResult(entry.getKey(), elapsedSeconds))
+                .toList();
+    }
+
+    private String pick(Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, draw + 1);
+        return names[index >= 0 ? index : -index - 1];
+    }
+
+    private static boolean call(Callable<Boolean> operation) {
+        try {
+            return operation.call();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** Latencies of the successful calls in microseconds, and the successful calls per second. */
+    record Result(String name, Histogram latencies, long errors, double throughput) {
+        double p99Millis() {
+            return latencies.getValueAtPercentile(99) / 1000.0;
+        }
+    }
+
+    private static final class Stats {
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+
+        void record(boolean success, long latencyNanos) {
+            if (success) {
+                latencies.recordValue(Math.min(latencyNanos / 1000, HIGHEST_LATENCY_MICROS));
+            } else {
+                errors.increment();
+            }
+        }
+
+        Result toResult(String name, double elapsedSeconds) {
+            return new Result(name, latencies, errors.sum(), latencies.getTotalCount() / elapsedSeconds);
+        }
+    }
+}
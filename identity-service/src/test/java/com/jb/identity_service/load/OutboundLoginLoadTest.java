@@ -0,0 +1,109 @@
+package com.jb.identity_service.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+import com.jb.identity_service.support.GoogleStubServer;
+
+/**
+ * Fires {@value #CONCURRENT_LOGINS} simultaneous Google logins at a running node, with each Google call taking
+ * {@code GOOGLE_LATENCY}, and reports how many the node had in flight at once. Subclasses pick the thread model.
+ * The stub lives for the whole test JVM so both subclasses can share it. Run with {@code mvn -Pload-test test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class OutboundLoginLoadTest {
+    static final int CONCURRENT_LOGINS = 1000;
+    static final int TOMCAT_MAX_THREADS = 200;
+    static final Duration GOOGLE_LATENCY = Duration.ofMillis(200);
+    static final GoogleStubServer GOOGLE = startGoogleStub();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    private static GoogleStubServer startGoogleStub() {
+        try {
+            return new GoogleStubServer(GOOGLE_LATENCY);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void googleUrls(DynamicPropertyRegistry registry) {
+        registry.add("outbound.identity.token-url", GOOGLE::baseUrl);
+        registry.add("outbound.identity.userinfo-url", GOOGLE::baseUrl);
+        registry.add("outbound.identity.jwks-url", () -> GOOGLE.baseUrl() + "/oauth2/v3/certs");
+        // The stub signs an id_token per login, so on a small machine the burst queues there for longer than the
+        // production timeouts; those and the bulkhead would turn logins away before the thread model limits them
+        registry.add("outbound.resilience.bulkhead.max-concurrent-calls", () -> CONCURRENT_LOGINS);
+        registry.add("spring.cloud.openfeign.client.config.outbound-identity-client.read-timeout", () -> 120_000);
+        registry.add("spring.cloud.openfeign.client.config.outbound-user-client.read-timeout", () -> 120_000);
+        registry.add("outbound.identity.jwks-cache.refresh-timeout", () -> "PT2M");
+        registry.add("outbound.resilience.circuit-breaker.slow-call-duration", () -> "2m");
+    }
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        roleRepository.save(Role.builder().name("USER").build());
+        GOOGLE.resetCounts();
+    }
+
+    /** Logs in {@value #CONCURRENT_LOGINS} distinct users at once and returns the peak concurrency at Google. */
+    int runLogins() throws Exception {
+        long started = System.nanoTime();
+        try (var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, CONCURRENT_LOGINS)
+                    .mapToObj(i -> client.sendAsync(
+                            HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                            + "/identity/auth/outbound/authentication?code=load-" + i))
+                                    .POST(HttpRequest.BodyPublishers.noBody())
+                                    .timeout(Duration.ofMinutes(2))
+                                    .build(),
+                            HttpResponse.BodyHandlers.ofString()))
+                    .toList();
+            for (var response : responses) {
+                Assertions.assertThat(response.get().statusCode()).isEqualTo(200);
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        System.out.printf(
+                "%s: %d logins in %d ms (%.0f/s), peak concurrent Google calls %d%n",
+                getClass().getSimpleName(),
+                CONCURRENT_LOGINS,
+                elapsed.toMillis(),
+                CONCURRENT_LOGINS * 1000.0 / elapsed.toMillis(),
+                GOOGLE.maxInFlight());
+        return GOOGLE.maxInFlight();
+    }
+}
@@ -0,0 +1,24 @@
+package com.jb.identity_service.load;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.threads.virtual.enabled=false",
+            "server.tomcat.threads.max=" + OutboundLoginLoadTest.TOMCAT_MAX_THREADS
+        })
+public class PlatformThreadOutboundLoginLoadTest extends OutboundLoginLoadTest {
+
+    @Test
+    void outboundLogin_platformThreads_cappedByTomcatPool() throws Exception {
+        // WHEN
+        int peak = runLogins();
+
+        // THEN every login holds a Tomcat thread across both Google calls
+        Assertions.assertThat(peak).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+    }
+}
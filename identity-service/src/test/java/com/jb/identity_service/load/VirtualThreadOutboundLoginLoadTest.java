@@ -0,0 +1,24 @@
+package com.jb.identity_service.load;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.threads.virtual.enabled=true",
+            "server.tomcat.threads.max=" + OutboundLoginLoadTest.TOMCAT_MAX_THREADS
+        })
+public class VirtualThreadOutboundLoginLoadTest extends OutboundLoginLoadTest {
+
+    @Test
+    void outboundLogin_virtualThreads_exceedPlatformPool() throws Exception {
+        // WHEN
+        int peak = runLogins();
+
+        // THEN logins waiting on Google no longer hold one of the platform threads
+        Assertions.assertThat(peak).isGreaterThan(TOMCAT_MAX_THREADS);
+    }
+}
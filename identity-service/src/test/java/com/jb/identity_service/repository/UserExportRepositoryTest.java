@@ -0,0 +1,44 @@
+package com.jb.identity_service.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+public class UserExportRepositoryTest {
+    private final DataSourceProperties properties = new DataSourceProperties();
+
+    @BeforeEach
+    void initData() {
+        properties.setUsername("sa");
+        properties.setPassword("sa");
+    }
+
+    @Test
+    void exportPool_mysqlUrl_cursorFetchOnThisPoolOnly() {
+        // GIVEN
+        properties.setDriverClassName("com.mysql.cj.jdbc.Driver");
+
+        // WHEN
+        try (var dataSource =
+                UserExportRepository.exportPool("jdbc:mysql://db.internal:3306/identity_service", properties, 2)) {
+            // THEN
+            Assertions.assertThat(dataSource.getDataSourceProperties())
+                    .containsEntry(UserExportRepository.USE_CURSOR_FETCH, "true");
+            Assertions.assertThat(dataSource.getPoolName()).isEqualTo("export");
+            Assertions.assertThat(dataSource.isReadOnly()).isTrue();
+        }
+    }
+
+    @Test
+    void exportPool_otherDriver_noDriverProperties() {
+        // GIVEN
+        properties.setDriverClassName("org.h2.Driver");
+
+        // WHEN
+        try (var dataSource = UserExportRepository.exportPool("jdbc:h2:mem:identity", properties, 2)) {
+            // THEN
+            Assertions.assertThat(dataSource.getDataSourceProperties()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.jb.identity_service.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.entity.InvalidatedToken;
+import com.jb.identity_service.repository.InvalidatedTokenRepository;
+import com.jb.identity_service.repository.JobLeaseRepository;
+import com.jb.identity_service.service.JobLeaseService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "jwt.invalidated-token-purge.batch-size=3",
+            "jwt.invalidated-token-purge.initial-delay=PT1H"
+        })
+public class InvalidatedTokenPurgeJobTest {
+    @Autowired
+    private InvalidatedTokenPurgeJob purgeJob;
+
+    @Autowired
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void initData() {
+        invalidatedTokenRepository.deleteAll();
+        jobLeaseRepository.deleteAll();
+        // refresh-valid-duration outlives valid-duration by 99 hours in application.yaml
+        Date pastRefreshWindow = Date.from(Instant.now().minus(Duration.ofDays(5)));
+        Date insideRefreshWindow = Date.from(Instant.now().minus(Duration.ofHours(2)));
+        IntStream.range(0, 7)
+                .forEach(i -> invalidatedTokenRepository.save(InvalidatedToken.builder()
+                        .id("expired-" + i)
+                        .expiryTime(pastRefreshWindow)
+                        .build()));
+        invalidatedTokenRepository.save(InvalidatedToken.builder()
+                .id("refreshable")
+                .expiryTime(insideRefreshWindow)
+                .build());
+    }
+
+    @Test
+    void purge_expiredRows_deletedInBatches() {
+        // GIVEN
+        double deletedBefore =
+                meterRegistry.counter("invalidated.token.purge.deleted").count();
+
+        // WHEN
+        purgeJob.purge();
+
+        // THEN
+        Assertions.assertThat(invalidatedTokenRepository.findAll())
+                .extracting(InvalidatedToken::getId)
+                .containsExactly("refreshable");
+        Assertions.assertThat(
+                        meterRegistry.counter("invalidated.token.purge.deleted").count() - deletedBefore)
+                .isEqualTo(7);
+        Assertions.assertThat(
+                        meterRegistry.get("invalidated.token.rows").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void purge_leaseHeldByAnotherNode_skipped() {
+        // GIVEN
+        jobLeaseRepository.insert(
+                InvalidatedTokenPurgeJob.LEASE_NAME, "other-node", Instant.now().plus(Duration.ofMinutes(5)));
+
+        // WHEN
+        purgeJob.purge();
+
+        // THEN
+        Assertions.assertThat(invalidatedTokenRepository.count()).isEqualTo(8);
+        Assertions.assertThat(
+                        meterRegistry.get("invalidated.token.rows").gauge().value())
+                .isEqualTo(8);
+        Assertions.assertThat(jobLeaseService.tryAcquire(InvalidatedTokenPurgeJob.LEASE_NAME, Duration.ofMinutes(1)))
+                .isFalse();
+    }
+}
@@ -0,0 +1,316 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.request.AuthenticationRequest;
+import com.jb.identity_service.dto.request.IntrospectRequest;
+import com.jb.identity_service.dto.request.RefreshRequest;
+import com.jb.identity_service.dto.response.TokenIntrospection;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+import com.nimbusds.jwt.SignedJWT;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.jpa.properties.hibernate.generate_statistics=true",
+            "security.password-hashing.bcrypt-strength=4",
+            "security.login-throttle.enabled=false",
+            // The scheduled revocation pull would otherwise add its query to the counted ones
+            "jwt.revocation-cache.sync-interval=PT1H",
+            "jwt.revocation-cache.max-staleness=PT1H"
+        })
+public class AuthenticationServiceTest {
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ScopeCache scopeCache;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        scopeCache.invalidate();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        createUser("oneRoleUser", 1);
+        createUser("fiveRoleUser", 5);
+    }
+
+    private void createUser(String username, int roleCount) {
+        Set<Role> roles = IntStream.range(0, roleCount)
+                .mapToObj(i -> {
+                    var permissions = IntStream.range(0, 3)
+                            .mapToObj(p -> permissionRepository.save(Permission.builder()
+                                    .name(username + "_ROLE" + i + "_PERMISSION" + p)
+                                    .build()))
+                            .collect(Collectors.toSet());
+                    return roleRepository.save(Role.builder()
+                            .name(username + "_ROLE" + i)
+                            .permissions(permissions)
+                            .build());
+                })
+                .collect(Collectors.toCollection(HashSet::new));
+        userRepository.save(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(roles)
+                .build());
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String login(String username) {
+        return authenticationService
+                .isAuthenticated(
+                        AuthenticationRequest.builder()
+                                .username(username)
+                                .password(PASSWORD)
+                                .build(),
+                        null)
+                .getToken();
+    }
+
+    @Test
+    void isAuthenticated_moreRoles_sameQueryCount() {
+        // WHEN
+        long oneRole = statementsFor(() -> login("oneRoleUser"));
+        long fiveRoles = statementsFor(() -> login("fiveRoleUser"));
+
+        // THEN user with roles, then permissions of that role set on a scope cache miss
+        Assertions.assertThat(oneRole).isEqualTo(2);
+        Assertions.assertThat(fiveRoles).isEqualTo(oneRole);
+    }
+
+    @Test
+    void isAuthenticated_scopeCached_singleQuery() {
+        // GIVEN
+        login("fiveRoleUser");
+
+        // WHEN
+        long statements = statementsFor(() -> login("fiveRoleUser"));
+
+        // THEN
+        Assertions.assertThat(statements).isEqualTo(1);
+    }
+
+    @Test
+    void isAuthenticated_hashAtOtherCost_rehashedAfterLoginReturns() throws Exception {
+        // GIVEN
+        var user = userRepository.findByUsername("oneRoleUser").orElseThrow();
+        user.setPassword(new BCryptPasswordEncoder(5).encode(PASSWORD));
+        userRepository.save(user);
+
+        // WHEN
+        login("oneRoleUser");
+
+        // THEN
+        String rehashed = user.getPassword();
+        for (int i = 0; i < 100 && rehashed.equals(user.getPassword()); i++) {
+            Thread.sleep(50);
+            rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        }
+        Assertions.assertThat(rehashed).startsWith("$2a$04$");
+        Assertions.assertThat(passwordEncoder.matches(PASSWORD, rehashed)).isTrue();
+    }
+
+    @Test
+    void isAuthenticated_permissionCatalogChanged_scopeRebuilt() throws Exception {
+        // GIVEN
+        login("oneRoleUser");
+        var role = roleRepository
+                .findWithPermissionsByNameIn(Set.of("oneRoleUser_ROLE0"))
+                .getFirst();
+        role.getPermissions().removeIf(permission -> permission.getName().endsWith("PERMISSION0"));
+        roleRepository.save(role);
+        permissionService.deletePermission("oneRoleUser_ROLE0_PERMISSION0");
+
+        // WHEN
+        String token = login("oneRoleUser");
+
+        // THEN
+        String scope = SignedJWT.parse(token).getJWTClaimsSet().getStringClaim("scope");
+        Assertions.assertThat(scope.split(" ")).hasSize(1 + 2);
+    }
+
+    @Test
+    void refreshToken_moreRoles_sameQueryCount() {
+        // GIVEN
+        String oneRoleToken = login("oneRoleUser");
+        String fiveRoleToken = login("fiveRoleUser");
+
+        // WHEN
+        long oneRole = statementsFor(() -> refresh(oneRoleToken));
+        long fiveRoles = statementsFor(() -> refresh(fiveRoleToken));
+
+        // THEN
+        Assertions.assertThat(fiveRoles).isEqualTo(oneRole);
+    }
+
+    @Test
+    void isAuthenticated_scopeContainsEveryRoleAndPermission() throws Exception {
+        // WHEN
+        String token = login("fiveRoleUser");
+
+        // THEN
+        String scope = SignedJWT.parse(token).getJWTClaimsSet().getStringClaim("scope");
+        Assertions.assertThat(scope.split(" ")).hasSize(5 + 5 * 3);
+    }
+
+    @Test
+    void verifyToken_eachRejection_countedByOutcome() throws Exception {
+        // GIVEN
+        String token = login("oneRoleUser");
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+        double invalidBefore = outcomeCount("invalid-signature");
+        double revokedBefore = outcomeCount("revoked");
+        long signatureChecksBefore = meterRegistry
+                .get("auth.stage")
+                .tags("flow", "verify", "stage", "signature")
+                .timer()
+                .count();
+
+        // WHEN
+        refresh(token);
+        boolean tamperedValid = authenticationService
+                .introspect(IntrospectRequest.builder().token(tampered).build())
+                .isValid();
+        boolean revokedValid = authenticationService
+                .introspect(IntrospectRequest.builder().token(token).build())
+                .isValid();
+
+        // THEN
+        Assertions.assertThat(tamperedValid).isFalse();
+        Assertions.assertThat(revokedValid).isFalse();
+        Assertions.assertThat(outcomeCount("invalid-signature") - invalidBefore).isEqualTo(1);
+        Assertions.assertThat(outcomeCount("revoked") - revokedBefore).isEqualTo(1);
+        Assertions.assertThat(meterRegistry
+                        .get("auth.stage")
+                        .tags("flow", "verify", "stage", "signature")
+                        .timer()
+                        .count())
+                .isEqualTo(signatureChecksBefore + 3);
+        Assertions.assertThat(meterRegistry
+                        .get("auth.stage")
+                        .tags("flow", "login", "stage", "password-match")
+                        .timer()
+                        .count())
+                .isPositive();
+    }
+
+    @Test
+    @WithMockUser(username = "gateway", roles = "GATEWAY")
+    void introspectAll_mixedBatch_resultsInRequestOrderWithoutQueries() {
+        // GIVEN
+        String valid = login("fiveRoleUser");
+        String revoked = login("oneRoleUser");
+        refresh(revoked);
+        String tampered = valid.substring(0, valid.length() - 4) + "AAAA";
+
+        // WHEN
+        var results = new ArrayList<TokenIntrospection>();
+        long statements = statementsFor(() -> results.addAll(authenticationService
+                .introspectAll(Arrays.asList(tampered, valid, "not-a-jwt", null, revoked), "10.0.0.1")
+                .getResults()));
+
+        // THEN revocation is answered by the warmed cache
+        Assertions.assertThat(results)
+                .extracting(TokenIntrospection::isValid)
+                .containsExactly(false, true, false, false, false);
+        Assertions.assertThat(results.get(1).getSubject()).isEqualTo("fiveRoleUser");
+        Assertions.assertThat(results.get(1).getScope().split(" ")).hasSize(5 + 5 * 3);
+        Assertions.assertThat(results.get(1).getExpiresAt()).isInTheFuture();
+        Assertions.assertThat(results.get(0).getSubject()).isNull();
+        Assertions.assertThat(statements).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "fiveRoleUser", roles = "USER")
+    void introspectAll_notGateway_denied() {
+        // GIVEN
+        String valid = login("fiveRoleUser");
+
+        // WHEN & THEN
+        assertThrows(
+                AccessDeniedException.class, () -> authenticationService.introspectAll(List.of(valid), "10.0.0.1"));
+    }
+
+    private double outcomeCount(String outcome) {
+        var counter = meterRegistry
+                .find("auth.outcome")
+                .tags("flow", "verify", "outcome", outcome)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void refresh(String token) {
+        try {
+            authenticationService.refreshToken(
+                    RefreshRequest.builder().token(token).build());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.jb.identity_service.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.config.CustomJwtDecoder;
+import com.jb.identity_service.config.ScopeAuthoritiesConverter;
+import com.jb.identity_service.dto.request.AuthenticationRequest;
+import com.jb.identity_service.dto.request.PermissionRequest;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+import com.nimbusds.jwt.SignedJWT;
+
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "security.password-hashing.bcrypt-strength=4",
+            "security.login-throttle.enabled=false",
+            "jwt.scope.compact-permissions=true"
+        })
+public class CompactPermissionsTest {
+    private static final String PASSWORD = "password123";
+    private static final int PERMISSIONS = 40;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private ScopeCache scopeCache;
+
+    @Autowired
+    private PermissionDictionary permissionDictionary;
+
+    @Autowired
+    private CustomJwtDecoder customJwtDecoder;
+
+    @Autowired
+    private ScopeAuthoritiesConverter scopeAuthoritiesConverter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        scopeCache.invalidate();
+
+        var permissions = IntStream.range(0, PERMISSIONS)
+                .mapToObj(p -> permissionRepository.save(
+                        Permission.builder().name("ADMIN_PERMISSION_" + p).build()))
+                .collect(Collectors.toSet());
+        permissionDictionary.assignSlots();
+        var role = roleRepository.save(
+                Role.builder().name("ADMIN").permissions(permissions).build());
+        userRepository.save(User.builder()
+                .username("adminuser")
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles(Set.of(role))
+                .build());
+    }
+
+    private String login() {
+        return authenticationService
+                .isAuthenticated(
+                        AuthenticationRequest.builder()
+                                .username("adminuser")
+                                .password(PASSWORD)
+                                .build(),
+                        null)
+                .getToken();
+    }
+
+    private Set<String> authorities(String token) {
+        return scopeAuthoritiesConverter.convert(customJwtDecoder.decode(token)).stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void isAuthenticated_compactScope_expandsToEveryRoleAndPermission() throws Exception {
+        // WHEN
+        String token = login();
+
+        // THEN
+        var claims = SignedJWT.parse(token).getJWTClaimsSet();
+        String fullScope = scopeCache.scopeFor(List.of("ADMIN"));
+        Assertions.assertThat(claims.getStringClaim("scope")).isEqualTo("ROLE_ADMIN");
+        Assertions.assertThat(claims.getStringClaim("perms").length()).isLessThan(fullScope.length() / 20);
+        Assertions.assertThat(authorities(token)).containsExactlyInAnyOrderElementsOf(List.of(fullScope.split(" ")));
+    }
+
+    @Test
+    void convert_sameClaims_cachedAuthorities() {
+        // GIVEN
+        String first = login();
+        String second = login();
+
+        // WHEN
+        var firstAuthorities = scopeAuthoritiesConverter.convert(customJwtDecoder.decode(first));
+        var secondAuthorities = scopeAuthoritiesConverter.convert(customJwtDecoder.decode(second));
+
+        // THEN
+        Assertions.assertThat(secondAuthorities).isSameAs(firstAuthorities);
+    }
+
+    @Test
+    void permissionAdded_earlierTokenKeepsItsPermissionsAndNewTokenGainsIt() throws Exception {
+        // GIVEN
+        String before = login();
+        int versionBefore = permissionService.getDictionary().getVersion();
+        permissionService.createPermission(
+                PermissionRequest.builder().name("ADMIN_PERMISSION_NEW").build());
+        var role = roleRepository.findWithPermissionsByNameIn(Set.of("ADMIN")).getFirst();
+        role.getPermissions()
+                .add(permissionRepository.findById("ADMIN_PERMISSION_NEW").orElseThrow());
+        roleRepository.save(role);
+        scopeCache.invalidate();
+
+        // WHEN
+        String after = login();
+
+        // THEN numbers already handed out keep their meaning
+        var dictionary = permissionService.getDictionary();
+        Assertions.assertThat(dictionary.getVersion()).isGreaterThan(versionBefore);
+        Assertions.assertThat(SignedJWT.parse(after).getJWTClaimsSet().getLongClaim("pv"))
+                .isEqualTo(dictionary.getVersion());
+        Assertions.assertThat(authorities(before)).hasSize(1 + PERMISSIONS).doesNotContain("ADMIN_PERMISSION_NEW");
+        Assertions.assertThat(authorities(after)).hasSize(1 + PERMISSIONS + 1).contains("ADMIN_PERMISSION_NEW");
+    }
+
+    @Test
+    void getDictionary_permissionSavedWithoutNumber_readersDoNotNumberIt() {
+        // GIVEN
+        int versionBefore = permissionService.getDictionary().getVersion();
+        permissionRepository.save(Permission.builder().name("UNNUMBERED").build());
+        scopeCache.invalidate();
+
+        // WHEN
+        var dictionary = permissionService.getDictionary();
+
+        // THEN
+        Assertions.assertThat(dictionary.getVersion()).isEqualTo(versionBefore);
+        Assertions.assertThat(dictionary.getPermissions()).doesNotContain("UNNUMBERED");
+        permissionDictionary.assignSlots();
+        Assertions.assertThat(permissionService.getDictionary().getPermissions())
+                .contains("UNNUMBERED");
+    }
+
+    @Test
+    @WithMockUser(username = "gateway", roles = "GATEWAY")
+    void introspectAll_compactToken_fullScope() {
+        // GIVEN
+        String token = login();
+
+        // WHEN
+        var result = authenticationService
+                .introspectAll(List.of(token), "10.0.0.1")
+                .getResults()
+                .getFirst();
+
+        // THEN
+        Assertions.assertThat(result.getScope().split(" ")).hasSize(1 + PERMISSIONS);
+    }
+}
@@ -0,0 +1,117 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.support.GoogleStubServer;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+public class GoogleIdTokenVerifierTest {
+    private static final String CLIENT_ID = "test-client";
+
+    private GoogleStubServer google;
+    private GoogleIdTokenVerifier verifier;
+
+    @BeforeEach
+    void initData() throws Exception {
+        google = new GoogleStubServer(Duration.ZERO);
+        verifier = new GoogleIdTokenVerifier(
+                CLIENT_ID,
+                google.baseUrl() + "/oauth2/v3/certs",
+                Duration.ofHours(1),
+                Duration.ofMinutes(5),
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        verifier.close();
+        google.close();
+    }
+
+    @Test
+    void verify_validToken_profileFromClaimsAndKeysCached() {
+        // WHEN
+        var first = verifier.verify(google.idToken("alice", CLIENT_ID));
+        var second = verifier.verify(google.idToken("bob", CLIENT_ID));
+
+        // THEN
+        Assertions.assertThat(first).hasValueSatisfying(user -> {
+            Assertions.assertThat(user.getEmail()).isEqualTo("alice@example.com");
+            Assertions.assertThat(user.isVerifiedEmail()).isTrue();
+            Assertions.assertThat(user.getGivenName()).isEqualTo("Stub");
+        });
+        Assertions.assertThat(second).isPresent();
+        Assertions.assertThat(google.requestCount("/oauth2/v3/certs")).isEqualTo(1);
+    }
+
+    @Test
+    void verify_otherAudience_rejected() {
+        // WHEN
+        var exception =
+                assertThrows(AppException.class, () -> verifier.verify(google.idToken("alice", "other-client")));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void verify_emailNotVerified_rejected() {
+        // GIVEN
+        google.setEmailVerified(false);
+        String token = google.idToken("mallory", CLIENT_ID);
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> verifier.verify(token));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void verify_signedByUnknownKey_rejected() throws Exception {
+        // GIVEN
+        var foreignKey = new RSAKeyGenerator(2048).keyID("stub-key").generate();
+        var jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("stub-key").build(),
+                new JWTClaimsSet.Builder()
+                        .issuer("https://accounts.google.com")
+                        .audience(CLIENT_ID)
+                        .subject("mallory")
+                        .claim("email", "mallory@example.com")
+                        .issueTime(new Date())
+                        .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                        .build());
+        jwt.sign(new RSASSASigner(foreignKey));
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> verifier.verify(jwt.serialize()));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void verify_jwksUnreachable_emptyForUserinfoFallback() {
+        // GIVEN
+        String token = google.idToken("alice", CLIENT_ID);
+        google.close();
+
+        // WHEN & THEN
+        Assertions.assertThat(verifier.verify(token)).isEmpty();
+    }
+}
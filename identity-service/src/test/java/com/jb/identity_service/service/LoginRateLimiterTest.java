@@ -0,0 +1,97 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.exception.LoginThrottledException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoginRateLimiterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void initData() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginRateLimiter(
+                meterRegistry,
+                true,
+                2,
+                Duration.ofMinutes(1),
+                3,
+                Duration.ofMinutes(1),
+                4,
+                100,
+                2,
+                Duration.ofMinutes(1));
+    }
+
+    @Test
+    void acquire_usernameBucketExhausted_throttledWithRetryAfter() {
+        // GIVEN
+        limiter.acquire("testuser", "10.0.0.1");
+        limiter.acquire("TestUser", "10.0.0.2");
+
+        // WHEN
+        var exception = assertThrows(LoginThrottledException.class, () -> limiter.acquire("testuser", "10.0.0.3"));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode().getCode()).isEqualTo(1010);
+        Assertions.assertThat(exception.getRetryAfterSeconds()).isBetween(1L, 30L);
+        Assertions.assertThat(meterRegistry
+                        .counter("login.throttle.rejected", "key", "username")
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void acquire_ipBucketExhausted_throttledAcrossUsernames() {
+        // GIVEN
+        limiter.acquire("user1", "10.0.0.1");
+        limiter.acquire("user2", "10.0.0.1");
+        limiter.acquire("user3", "10.0.0.1");
+
+        // WHEN & THEN
+        assertThrows(LoginThrottledException.class, () -> limiter.acquire("user4", "10.0.0.1"));
+        limiter.acquire("user4", "10.0.0.2");
+        Assertions.assertThat(meterRegistry
+                        .counter("login.throttle.rejected", "key", "ip")
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void acquireIntrospectBatch_clientBucketExhausted_throttledFromAnyAddress() {
+        // GIVEN
+        limiter.acquireIntrospectBatch("gateway", "10.0.0.1");
+        limiter.acquireIntrospectBatch("gateway", "10.0.0.2");
+
+        // WHEN & THEN
+        var exception = assertThrows(
+                LoginThrottledException.class, () -> limiter.acquireIntrospectBatch("gateway", "10.0.0.3"));
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INTROSPECT_BATCH_THROTTLED);
+        limiter.acquireIntrospectBatch("other-gateway", "10.0.0.3");
+        Assertions.assertThat(meterRegistry
+                        .counter("login.throttle.rejected", "key", "introspect-batch")
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void acquire_manyDistinctKeys_memoryStaysBounded() {
+        // WHEN
+        for (int i = 0; i < 10_000; i++) {
+            limiter.acquire("user" + i, "10.0." + (i / 250) + "." + (i % 250));
+        }
+
+        // THEN no exception: evicted buckets start again from full capacity
+        limiter.acquire("user0", "10.0.0.0");
+    }
+}
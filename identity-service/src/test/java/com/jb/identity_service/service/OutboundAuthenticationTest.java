@@ -0,0 +1,167 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.response.AuthenticationResponse;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+import com.jb.identity_service.support.GoogleStubServer;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+public class OutboundAuthenticationTest {
+    private static final GoogleStubServer GOOGLE = startGoogleStub();
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private static GoogleStubServer startGoogleStub() {
+        try {
+            return new GoogleStubServer(Duration.ZERO);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void googleUrls(DynamicPropertyRegistry registry) {
+        registry.add("outbound.identity.token-url", GOOGLE::baseUrl);
+        registry.add("outbound.identity.userinfo-url", GOOGLE::baseUrl);
+        registry.add("outbound.identity.jwks-url", () -> GOOGLE.baseUrl() + "/oauth2/v3/certs");
+    }
+
+    @AfterAll
+    static void stopGoogleStub() {
+        GOOGLE.close();
+    }
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        roleRepository.save(Role.builder().name("USER").build());
+        GOOGLE.resetCounts();
+    }
+
+    @AfterEach
+    void tearDown() {
+        GOOGLE.setIssueIdTokens(true);
+        GOOGLE.setEmailVerified(true);
+    }
+
+    @Test
+    void outboundAuthentication_idToken_verifiedLocallyWithoutUserinfo() {
+        // WHEN
+        authenticationService.outboundAuthentication("first");
+        authenticationService.outboundAuthentication("second");
+        authenticationService.outboundAuthentication("third");
+
+        // THEN
+        Assertions.assertThat(GOOGLE.requestCount("/token")).isEqualTo(3);
+        Assertions.assertThat(GOOGLE.requestCount("/oauth2/v1/userinfo")).isZero();
+        Assertions.assertThat(GOOGLE.requestCount("/oauth2/v3/certs")).isLessThanOrEqualTo(1);
+        var user = userRepository.findByUsername("second@example.com").orElseThrow();
+        Assertions.assertThat(user.getFirstName()).isEqualTo("Stub");
+        Assertions.assertThat(user.getLastName()).isEqualTo("User");
+    }
+
+    @Test
+    void outboundAuthentication_noIdToken_fallsBackToUserinfo() {
+        // GIVEN
+        GOOGLE.setIssueIdTokens(false);
+
+        // WHEN
+        var response = authenticationService.outboundAuthentication("legacy");
+
+        // THEN
+        Assertions.assertThat(response.isAuthenticated()).isTrue();
+        Assertions.assertThat(GOOGLE.requestCount("/oauth2/v1/userinfo")).isEqualTo(1);
+        Assertions.assertThat(userRepository.existsByUsername("legacy@example.com"))
+                .isTrue();
+    }
+
+    @Test
+    void outboundAuthentication_unverifiedEmailFromUserinfo_rejectedWithoutTakingOverAccount() {
+        // GIVEN
+        userRepository.save(User.builder().username("victim@example.com").build());
+        GOOGLE.setIssueIdTokens(false);
+        GOOGLE.setEmailVerified(false);
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> authenticationService.outboundAuthentication("victim"));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    void outboundAuthentication_userRoleMissing_failsWithoutCreatingRolelessUser() {
+        // GIVEN
+        roleRepository.deleteAll();
+
+        // WHEN
+        assertThrows(
+                DataIntegrityViolationException.class, () -> authenticationService.outboundAuthentication("norole"));
+
+        // THEN
+        Assertions.assertThat(userRepository.existsByUsername("norole@example.com"))
+                .isFalse();
+    }
+
+    @Test
+    void outboundAuthentication_sameNewUserConcurrently_oneUserWithPersistedRole() throws Exception {
+        // GIVEN
+        int callers = 32;
+        var start = new CountDownLatch(1);
+
+        // WHEN
+        List<Future<AuthenticationResponse>> logins;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            logins = IntStream.range(0, callers)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return authenticationService.outboundAuthentication("racer");
+                    }))
+                    .toList();
+            start.countDown();
+        }
+
+        // THEN
+        for (var login : logins) {
+            Assertions.assertThat(login.get().isAuthenticated()).isTrue();
+        }
+        Assertions.assertThat(userRepository.count()).isEqualTo(1);
+        var user = userRepository.findWithRolesByUsername("racer@example.com").orElseThrow();
+        Assertions.assertThat(user.getRoles()).extracting(Role::getName).containsExactly("USER");
+        Assertions.assertThat(user.getFirstName()).isEqualTo("Stub");
+    }
+}
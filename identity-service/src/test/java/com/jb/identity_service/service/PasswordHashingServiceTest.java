@@ -0,0 +1,164 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.exception.ErrorCode;
+
+public class PasswordHashingServiceTest {
+    private CountDownLatch started;
+    private CountDownLatch release;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void initData() {
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        passwordHashingService = new PasswordHashingService(blockingEncoder, 1, 1, 2, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void matches_poolAndQueueFull_rejectedImmediately() throws Exception {
+        // GIVEN
+        String encoded = new BCryptPasswordEncoder(4).encode("password123");
+        var running = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("password123", encoded));
+        started.await(5, TimeUnit.SECONDS);
+        var queued = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("password123", encoded));
+        Thread.sleep(100);
+
+        // WHEN
+        var exception = assertThrows(AppException.class, () -> passwordHashingService.matches("password123", encoded));
+
+        // THEN
+        Assertions.assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.PASSWORD_HASHING_BUSY);
+        release.countDown();
+        Assertions.assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void rehash_loginPoolFull_runsOnRehashThread() throws Exception {
+        // GIVEN
+        String encoded = new BCryptPasswordEncoder(4).encode("password123");
+        var running = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("password123", encoded));
+        started.await(5, TimeUnit.SECONDS);
+        var queued = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("password123", encoded));
+        Thread.sleep(100);
+        var stored = new CompletableFuture<String>();
+
+        // WHEN
+        boolean accepted = passwordHashingService.rehash(
+                "password123", hash -> stored.complete(Thread.currentThread().getName() + " " + hash));
+
+        // THEN
+        Assertions.assertThat(accepted).isTrue();
+        Assertions.assertThat(stored.get(5, TimeUnit.SECONDS)).startsWith("password-rehash-1 $2a$04$");
+        release.countDown();
+        Assertions.assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void rehash_rehashQueueFull_dropped() throws Exception {
+        // GIVEN
+        var storing = new CountDownLatch(1);
+        var stored = new CountDownLatch(2);
+        Consumer<String> blockingStore = hash -> {
+            storing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stored.countDown();
+        };
+        Assertions.assertThat(passwordHashingService.rehash("password123", blockingStore))
+                .isTrue();
+        storing.await(5, TimeUnit.SECONDS);
+        Assertions.assertThat(passwordHashingService.rehash("password123", blockingStore))
+                .isTrue();
+
+        // WHEN
+        boolean accepted = passwordHashingService.rehash("password123", blockingStore);
+
+        // THEN
+        Assertions.assertThat(accepted).isFalse();
+        release.countDown();
+        Assertions.assertThat(stored.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void encode_thenMatches_success() {
+        // GIVEN
+        release.countDown();
+
+        // WHEN
+        String encoded = passwordHashingService.encode("password123");
+
+        // THEN
+        Assertions.assertThat(passwordHashingService.matches("password123", encoded))
+                .isTrue();
+        Assertions.assertThat(passwordHashingService.matches("wrong-password", encoded))
+                .isFalse();
+    }
+
+    @Test
+    void encodeAll_keepsOrderAndNulls() {
+        // WHEN
+        var encoded = passwordHashingService.encodeAll(Arrays.asList("first-password", null, "third-password"));
+
+        // THEN
+        Assertions.assertThat(encoded).hasSize(3);
+        Assertions.assertThat(encoded.get(1)).isNull();
+        Assertions.assertThat(new BCryptPasswordEncoder(4).matches("first-password", encoded.get(0)))
+                .isTrue();
+        Assertions.assertThat(new BCryptPasswordEncoder(4).matches("third-password", encoded.get(2)))
+                .isTrue();
+    }
+
+    @Test
+    void encodeAll_moreThanBulkPoolAndQueue_waitsForRoomInsteadOfRejecting() {
+        // GIVEN
+        var passwords = IntStream.range(0, 10).mapToObj(i -> "password-" + i).toList();
+
+        // WHEN
+        var encoded = passwordHashingService.encodeAll(passwords);
+
+        // THEN
+        Assertions.assertThat(encoded).hasSize(10);
+        Assertions.assertThat(new BCryptPasswordEncoder(4).matches("password-9", encoded.get(9)))
+                .isTrue();
+    }
+}
@@ -0,0 +1,48 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+public class ReadYourWritesTest {
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1), 100);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void recordWrite_insideTransaction_windowStartsAtCommit() {
+        // GIVEN
+        TransactionSynchronizationManager.initSynchronization();
+        readYourWrites.recordWrite("user-1");
+        boolean onPrimaryBeforeCommit = readYourWrites.read("user-1", ReadYourWrites::isOnPrimary);
+
+        // WHEN
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        // THEN
+        Assertions.assertThat(onPrimaryBeforeCommit).isFalse();
+        Assertions.assertThat(readYourWrites.read("user-1", ReadYourWrites::isOnPrimary))
+                .isTrue();
+    }
+
+    @Test
+    void recordWrite_noTransaction_windowStartsAtOnce() {
+        // WHEN
+        readYourWrites.recordWrite("user-1");
+
+        // THEN
+        Assertions.assertThat(readYourWrites.read("user-1", ReadYourWrites::isOnPrimary))
+                .isTrue();
+        Assertions.assertThat(readYourWrites.read("user-2", ReadYourWrites::isOnPrimary))
+                .isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.repository.CatalogVersionRepository;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.PermissionSlotRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+public class ScopeCacheTest {
+    @Autowired
+    private ScopeCache scopeCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private PermissionSlotRepository permissionSlotRepository;
+
+    @Autowired
+    private CatalogVersionRepository catalogVersionRepository;
+
+    private ScopeCache otherNode;
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        roleRepository.save(Role.builder()
+                .name("ADMIN")
+                .permissions(Set.of(permissionRepository.save(
+                        Permission.builder().name("READ_DATA").build())))
+                .build());
+        // A second node sharing the database, checking the shared version on every call
+        otherNode = new ScopeCache(
+                roleRepository,
+                new PermissionDictionary(permissionRepository, permissionSlotRepository),
+                catalogVersionRepository,
+                Duration.ZERO);
+    }
+
+    @Test
+    void scopeFor_permissionRemovedThroughAnotherNode_seenAfterSharedVersionCheck() {
+        // GIVEN
+        Assertions.assertThat(otherNode.scopeFor(List.of("ADMIN"))).isEqualTo("ROLE_ADMIN READ_DATA");
+
+        // WHEN
+        var role = roleRepository.findById("ADMIN").orElseThrow();
+        role.setPermissions(Set.of());
+        roleRepository.save(role);
+        scopeCache.invalidate();
+
+        // THEN
+        Assertions.assertThat(otherNode.scopeFor(List.of("ADMIN"))).isEqualTo("ROLE_ADMIN");
+    }
+}
@@ -0,0 +1,206 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.jb.identity_service.entity.InvalidatedToken;
+import com.jb.identity_service.repository.InvalidatedTokenRepository;
+
+public class TokenRevocationCacheTest {
+    private static final Duration OVERLAP = Duration.ofSeconds(10);
+
+    private InvalidatedTokenRepository invalidatedTokenRepository;
+    private TokenRevocationCache cache;
+
+    @BeforeEach
+    void initData() {
+        invalidatedTokenRepository = Mockito.mock(InvalidatedTokenRepository.class);
+        cache = new TokenRevocationCache(invalidatedTokenRepository, 2, Duration.ofHours(1), OVERLAP, 3600, 360000);
+    }
+
+    private InvalidatedToken token(String id, long expiresInMillis) {
+        return InvalidatedToken.builder()
+                .id(id)
+                .expiryTime(new Date(System.currentTimeMillis() + expiresInMillis))
+                .build();
+    }
+
+    @Test
+    void isRevoked_warmedCache_answersFromMemory() {
+        // GIVEN
+        Mockito.when(invalidatedTokenRepository.findAllByExpiryTimeAfter(
+                        ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(token("revoked", 60_000)));
+        cache.warmUp();
+
+        // WHEN & THEN
+        Assertions.assertThat(cache.isRevoked("revoked")).isTrue();
+        Assertions.assertThat(cache.isRevoked("valid")).isFalse();
+        Mockito.verify(invalidatedTokenRepository, Mockito.never()).findById(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void sync_revokedOnAnotherNode_answeredFromMemory() {
+        // GIVEN
+        Mockito.when(invalidatedTokenRepository.findAllByExpiryTimeAfter(
+                        ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+        cache.warmUp();
+        Mockito.when(invalidatedTokenRepository.findAllByRevokedAtAfter(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(token("elsewhere", 60_000)));
+
+        // WHEN
+        cache.sync();
+
+        // THEN
+        Assertions.assertThat(cache.isRevoked("elsewhere")).isTrue();
+        Assertions.assertThat(cache.isRevoked("valid")).isFalse();
+        Mockito.verify(invalidatedTokenRepository, Mockito.never()).findById(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void sync_pullsFromLastSyncLessOverlap() {
+        // GIVEN
+        long before = System.currentTimeMillis();
+        cache.warmUp();
+
+        // WHEN
+        cache.sync();
+
+        // THEN
+        var since = ArgumentCaptor.forClass(Date.class);
+        Mockito.verify(invalidatedTokenRepository).findAllByRevokedAtAfter(since.capture(), ArgumentMatchers.any());
+        Assertions.assertThat(since.getValue().getTime())
+                .isBetween(before - OVERLAP.toMillis(), System.currentTimeMillis());
+    }
+
+    @Test
+    void isRevoked_notSyncedWithinMaxStaleness_fallsBackToDatabase() {
+        // GIVEN
+        cache = new TokenRevocationCache(invalidatedTokenRepository, 2, Duration.ZERO, OVERLAP, 3600, 360000);
+        cache.warmUp();
+
+        // WHEN
+        Assertions.assertThat(cache.isRevoked("valid")).isFalse();
+
+        // THEN
+        Assertions.assertThat(cache.isComplete()).isTrue();
+        Assertions.assertThat(cache.answersMisses()).isFalse();
+        Mockito.verify(invalidatedTokenRepository).findById("valid");
+    }
+
+    @Test
+    void revoke_storesRevocationTime() {
+        // GIVEN
+        var token = token("revoked", 60_000);
+
+        // WHEN
+        cache.revoke(token);
+
+        // THEN
+        Assertions.assertThat(token.getRevokedAt()).isNotNull();
+        Mockito.verify(invalidatedTokenRepository).save(token);
+    }
+
+    @Test
+    void isRevoked_notWarmedUp_fallsBackToDatabase() {
+        // GIVEN
+        Mockito.when(invalidatedTokenRepository.findById("revoked")).thenReturn(Optional.of(token("revoked", 60_000)));
+
+        // WHEN & THEN
+        Assertions.assertThat(cache.isRevoked("revoked")).isTrue();
+        Assertions.assertThat(cache.isRevoked("revoked")).isTrue();
+        Assertions.assertThat(cache.isRevoked("valid")).isFalse();
+        Mockito.verify(invalidatedTokenRepository, Mockito.times(1)).findById("revoked");
+    }
+
+    @Test
+    void isRevoked_accessTokenExpired_keptForRefreshWindow() {
+        // GIVEN
+        cache.warmUp();
+        cache.revoke(token("refreshable", -60_000));
+
+        // WHEN & THEN
+        Assertions.assertThat(cache.isRevoked("refreshable")).isTrue();
+    }
+
+    @Test
+    void revoke_capacityExceeded_stopsTrustingMisses() {
+        // GIVEN
+        cache.warmUp();
+        cache.revoke(token("first", 60_000));
+        cache.revoke(token("second", 60_000));
+
+        // WHEN
+        cache.revoke(token("third", 60_000));
+        Mockito.when(invalidatedTokenRepository.findById("third")).thenReturn(Optional.of(token("third", 60_000)));
+
+        // THEN
+        Assertions.assertThat(cache.isComplete()).isFalse();
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+        Assertions.assertThat(cache.isRevoked("third")).isTrue();
+    }
+
+    @Test
+    void rewarmIfOverflowed_fitsAgain_trustsMissesAgain() throws InterruptedException {
+        // GIVEN a cache without refresh grace, overflowed by a token that expires shortly after
+        cache = new TokenRevocationCache(invalidatedTokenRepository, 2, Duration.ofHours(1), OVERLAP, 3600, 3600);
+        cache.warmUp();
+        cache.revoke(token("first", 60_000));
+        cache.revoke(token("second", 100));
+        cache.revoke(token("third", 60_000));
+        Thread.sleep(150);
+        Mockito.when(invalidatedTokenRepository.findAllByExpiryTimeAfter(
+                        ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(token("first", 60_000), token("third", 60_000)));
+
+        // WHEN
+        cache.rewarmIfOverflowed();
+
+        // THEN
+        Assertions.assertThat(cache.isComplete()).isTrue();
+        Assertions.assertThat(cache.isRevoked("third")).isTrue();
+        Assertions.assertThat(cache.isRevoked("valid")).isFalse();
+        Mockito.verify(invalidatedTokenRepository, Mockito.never()).findById("valid");
+    }
+
+    @Test
+    void revokedAmong_incompleteCache_oneQueryForUnknownIds() {
+        // GIVEN
+        cache.revoke(token("known", 60_000));
+        Mockito.when(invalidatedTokenRepository.findAllById(List.of("stored", "valid")))
+                .thenReturn(List.of(token("stored", 60_000)));
+
+        // WHEN
+        var revoked = cache.revokedAmong(List.of("known", "stored", "valid"));
+
+        // THEN
+        Assertions.assertThat(revoked).containsExactlyInAnyOrder("known", "stored");
+        Assertions.assertThat(cache.isRevoked("stored")).isTrue();
+        Mockito.verify(invalidatedTokenRepository, Mockito.times(1)).findAllById(ArgumentMatchers.any());
+        Mockito.verify(invalidatedTokenRepository, Mockito.never()).findById(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void revokedAmong_warmedCache_noQuery() {
+        // GIVEN
+        cache.warmUp();
+        cache.revoke(token("revoked", 60_000));
+
+        // WHEN
+        var revoked = cache.revokedAmong(List.of("revoked", "valid"));
+
+        // THEN
+        Assertions.assertThat(revoked).containsExactly("revoked");
+        Mockito.verify(invalidatedTokenRepository, Mockito.never()).findAllById(ArgumentMatchers.any());
+    }
+}
@@ -0,0 +1,157 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jb.identity_service.dto.response.RoleResponse;
+import com.jb.identity_service.dto.response.UserResponse;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.enums.ExportFormat;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@WithMockUser(roles = "ADMIN")
+public class UserExportServiceTest {
+    private static final int USER_COUNT = UserExportService.FLUSH_EVERY_USERS + 3;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        var admin = roleRepository.save(Role.builder()
+                .name("ADMIN")
+                .permissions(Set.of(permissionRepository.save(
+                        Permission.builder().name("READ_DATA").build())))
+                .build());
+        var user = roleRepository.save(Role.builder().name("USER").build());
+        userRepository.save(User.builder()
+                .username("a-admin")
+                .firstName("Ann, \"the\" admin")
+                .password("hash")
+                .roles(Set.of(admin, user))
+                .build());
+        for (int i = 1; i < USER_COUNT; i++) {
+            userRepository.save(User.builder()
+                    .username("user%04d".formatted(i))
+                    .roles(Set.of(user))
+                    .build());
+        }
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        var out = new ByteArrayOutputStream();
+        userExportService.exportUsers(format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void exportUsers_ndjson_oneUserPerLineWithRoles() throws Exception {
+        // WHEN
+        String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+        // THEN
+        Assertions.assertThat(lines).hasSize(USER_COUNT);
+        var first = objectMapper.readValue(lines[0], UserResponse.class);
+        Assertions.assertThat(first.getUsername()).isEqualTo("a-admin");
+        Assertions.assertThat(first.isNoPassword()).isFalse();
+        Assertions.assertThat(first.getRoles())
+                .extracting(RoleResponse::getName)
+                .containsExactly("ADMIN", "USER");
+        var last = objectMapper.readValue(lines[USER_COUNT - 1], UserResponse.class);
+        Assertions.assertThat(last.getUsername()).isEqualTo("user%04d".formatted(USER_COUNT - 1));
+        Assertions.assertThat(last.isNoPassword()).isTrue();
+    }
+
+    @Test
+    void exportUsers_csv_headerAndQuotedFields() throws Exception {
+        // WHEN
+        String[] lines = export(ExportFormat.CSV).split("\n");
+
+        // THEN
+        Assertions.assertThat(lines).hasSize(USER_COUNT + 1);
+        Assertions.assertThat(lines[0]).isEqualTo(UserExportService.CSV_HEADER);
+        Assertions.assertThat(lines[1]).endsWith(",a-admin,\"Ann, \"\"the\"\" admin\",,,false,ADMIN|USER");
+        Assertions.assertThat(lines[2]).endsWith(",user0001,,,,true,USER");
+    }
+
+    @Test
+    void exportUsers_csvFormulaFields_prefixedWithQuote() throws Exception {
+        // GIVEN
+        userRepository.save(User.builder()
+                .username("b-formula")
+                .firstName("=HYPERLINK(\"http://evil.example\")")
+                .lastName("@SUM(A1)")
+                .build());
+
+        // WHEN
+        String[] lines = export(ExportFormat.CSV).split("\n");
+
+        // THEN
+        Assertions.assertThat(lines[2])
+                .endsWith(",b-formula,\"'=HYPERLINK(\"\"http://evil.example\"\")\",'@SUM(A1),,true,");
+    }
+
+    @Test
+    void exportEndpoint_exportTimeoutAppliedToThisRequestOnly() throws Exception {
+        // WHEN
+        var result = mockMvc.perform(MockMvcRequestBuilders.get("/users/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        // THEN
+        Assertions.assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofMinutes(30).toMillis());
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void exportUsers_notAdmin_denied() {
+        // WHEN & THEN
+        assertThrows(AuthorizationDeniedException.class, () -> userExportService.exportUsers(ExportFormat.CSV));
+    }
+}
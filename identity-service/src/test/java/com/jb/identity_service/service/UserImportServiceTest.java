@@ -0,0 +1,156 @@
+package com.jb.identity_service.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.response.UserImportFailure;
+import com.jb.identity_service.dto.response.UserImportResponse;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.exception.ErrorCode;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "security.password-hashing.bcrypt-strength=4",
+            "users.import.chunk-size=50"
+        })
+@WithMockUser(roles = "ADMIN")
+public class UserImportServiceTest {
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        roleRepository.save(Role.builder().name("USER").build());
+        userRepository.save(User.builder().username("existing").build());
+    }
+
+    private UserImportResponse importLines(String ndjson) throws Exception {
+        return userImportService.importUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void importUsers_manyChunks_allInsertedWithHashedPasswordAndUserRole() throws Exception {
+        // GIVEN
+        String ndjson = IntStream.range(0, 120)
+                .mapToObj(i ->
+                        "{\"username\":\"imported%03d\",\"password\":\"password123\",\"dateOfBirth\":\"1990-01-01\"}"
+                                .formatted(i))
+                .collect(Collectors.joining("\n"));
+
+        // WHEN
+        var response = importLines(ndjson);
+
+        // THEN
+        Assertions.assertThat(response.getImported()).isEqualTo(120);
+        Assertions.assertThat(response.getFailed()).isZero();
+        var user = userRepository.findWithRolesByUsername("imported042").orElseThrow();
+        Assertions.assertThat(passwordEncoder.matches("password123", user.getPassword()))
+                .isTrue();
+        Assertions.assertThat(user.getDateOfBirth()).hasYear(1990);
+        Assertions.assertThat(user.getRoles()).extracting(Role::getName).containsExactly("USER");
+    }
+
+    @Test
+    void importUsers_badLines_reportedAndRestImported() throws Exception {
+        // GIVEN
+        String ndjson = String.join(
+                "\n",
+                "{\"username\":\"newuser1\",\"password\":\"password123\"}",
+                "{\"username\":\"existing\",\"password\":\"password123\"}",
+                "{\"username\":\"abc\",\"password\":\"password123\"}",
+                "not json",
+                "",
+                "{\"username\":\"NewUser1\",\"password\":\"password123\"}",
+                "{\"username\":\"newuser2\"}");
+
+        // WHEN
+        var response = importLines(ndjson);
+
+        // THEN
+        Assertions.assertThat(response.getImported()).isEqualTo(1);
+        Assertions.assertThat(response.getFailed()).isEqualTo(5);
+        Assertions.assertThat(response.getFailures())
+                .extracting(UserImportFailure::getLine, UserImportFailure::getCode)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(2L, ErrorCode.USER_EXISTED.getCode()),
+                        Assertions.tuple(3L, ErrorCode.USERNAME_INVALID.getCode()),
+                        Assertions.tuple(4L, ErrorCode.IMPORT_LINE_MALFORMED.getCode()),
+                        Assertions.tuple(6L, ErrorCode.USER_EXISTED.getCode()),
+                        Assertions.tuple(7L, ErrorCode.PASSWORD_REQUIRED.getCode()));
+        Assertions.assertThat(response.getFailures())
+                .filteredOn(failure -> failure.getLine() == 3)
+                .extracting(UserImportFailure::getMessage)
+                .containsExactly("Username must be at least 5 characters");
+        Assertions.assertThat(userRepository.existsByUsername("newuser2")).isFalse();
+    }
+
+    @Test
+    void importUsers_duplicateInLaterChunk_reportedAsExisting() throws Exception {
+        // GIVEN
+        String ndjson = IntStream.range(0, 60)
+                .mapToObj(i -> "chunkuser%03d".formatted(i == 55 ? 0 : i))
+                .map(username -> "{\"username\":\"%s\",\"password\":\"password123\"}".formatted(username))
+                .collect(Collectors.joining("\n"));
+
+        // WHEN
+        var response = importLines(ndjson);
+
+        // THEN
+        Assertions.assertThat(response.getImported()).isEqualTo(59);
+        Assertions.assertThat(response.getFailures())
+                .extracting(UserImportFailure::getLine, UserImportFailure::getCode)
+                .containsExactly(Assertions.tuple(56L, ErrorCode.USER_EXISTED.getCode()));
+    }
+
+    @Test
+    void importUsers_chunkFailsInDatabase_chunkReportedAndOtherChunksImported() throws Exception {
+        // GIVEN a first name longer than its column fails the second chunk's insert
+        String ndjson = IntStream.range(0, 120)
+                .mapToObj(i -> "{\"username\":\"chunkfail%03d\",\"password\":\"password123\",\"firstName\":\"%s\"}"
+                        .formatted(i, i == 70 ? "x".repeat(300) : "Name"))
+                .collect(Collectors.joining("\n"));
+
+        // WHEN
+        var response = importLines(ndjson);
+
+        // THEN
+        Assertions.assertThat(response.getImported()).isEqualTo(70);
+        Assertions.assertThat(response.getFailures())
+                .extracting(UserImportFailure::getLine)
+                .containsExactlyElementsOf(
+                        IntStream.rangeClosed(51, 100).mapToObj(Long::valueOf).toList());
+        Assertions.assertThat(response.getFailures())
+                .extracting(UserImportFailure::getCode)
+                .containsOnly(ErrorCode.IMPORT_CHUNK_FAILED.getCode());
+        Assertions.assertThat(userRepository.existsByUsername("chunkfail050")).isFalse();
+        Assertions.assertThat(userRepository.existsByUsername("chunkfail100")).isTrue();
+    }
+}
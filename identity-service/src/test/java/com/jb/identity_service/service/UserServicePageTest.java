@@ -0,0 +1,158 @@
+package com.jb.identity_service.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.response.PermissionResponse;
+import com.jb.identity_service.dto.response.RoleResponse;
+import com.jb.identity_service.dto.response.UserResponse;
+import com.jb.identity_service.entity.Permission;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.exception.AppException;
+import com.jb.identity_service.repository.PermissionRepository;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@WithMockUser(roles = "ADMIN")
+public class UserServicePageTest {
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+        var admin = roleRepository.save(Role.builder()
+                .name("ADMIN")
+                .permissions(Set.of(
+                        permissionRepository.save(
+                                Permission.builder().name("READ_DATA").build()),
+                        permissionRepository.save(
+                                Permission.builder().name("WRITE_DATA").build())))
+                .build());
+        var user = roleRepository.save(Role.builder().name("USER").build());
+        for (int i = 0; i < 7; i++) {
+            userRepository.save(User.builder()
+                    .username("alice" + i)
+                    .roles(Set.of(i % 2 == 0 ? admin : user))
+                    .build());
+        }
+        userRepository.save(User.builder().username("bob_1").roles(Set.of(user)).build());
+        userRepository.save(User.builder().username("bobx1").roles(Set.of(user)).build());
+    }
+
+    @Test
+    void getAllUsers_followCursor_visitsEveryUserOnce() {
+        // GIVEN
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+
+        // WHEN
+        do {
+            var page = userService.getAllUsers(cursor, 4, null, null);
+            Assertions.assertThat(page.getItems()).hasSizeLessThanOrEqualTo(4);
+            page.getItems().forEach(item -> usernames.add(item.getUsername()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // THEN
+        Assertions.assertThat(usernames)
+                .containsExactly(
+                        "alice0", "alice1", "alice2", "alice3", "alice4", "alice5", "alice6", "bob_1", "bobx1");
+    }
+
+    @Test
+    void getAllUsers_roleAndPrefixFilters_applied() {
+        // WHEN
+        var admins = userService.getAllUsers(null, 20, "ADMIN", "alice");
+        var literalUnderscore = userService.getAllUsers(null, 20, null, "bob_");
+
+        // THEN
+        Assertions.assertThat(admins.getItems())
+                .extracting(UserResponse::getUsername)
+                .containsExactly("alice0", "alice2", "alice4", "alice6");
+        Assertions.assertThat(admins.getNextCursor()).isNull();
+        Assertions.assertThat(literalUnderscore.getItems())
+                .extracting(UserResponse::getUsername)
+                .containsExactly("bob_1");
+    }
+
+    @Test
+    void getAllUsers_userWithSeveralRoles_listedOnceWithOrWithoutRoleFilter() {
+        // GIVEN
+        var roles = Set.copyOf(roleRepository.findAllById(List.of("ADMIN", "USER")));
+        userRepository.save(User.builder().username("carol").roles(roles).build());
+
+        // WHEN
+        var unfiltered = userService.getAllUsers(null, 20, null, "carol");
+        var admins = userService.getAllUsers(null, 20, "ADMIN", "carol");
+
+        // THEN
+        Assertions.assertThat(unfiltered.getItems())
+                .extracting(UserResponse::getUsername)
+                .containsExactly("carol");
+        Assertions.assertThat(admins.getItems())
+                .extracting(UserResponse::getUsername)
+                .containsExactly("carol");
+    }
+
+    @Test
+    void getAllUsers_rolesAndPermissionsAssembledFromRows() {
+        // WHEN
+        var page = userService.getAllUsers(null, 2, null, "alice");
+
+        // THEN
+        Assertions.assertThat(page.getItems())
+                .extracting(UserResponse::getUsername)
+                .containsExactly("alice0", "alice1");
+        var adminRole = page.getItems().getFirst().getRoles().iterator().next();
+        Assertions.assertThat(adminRole.getName()).isEqualTo("ADMIN");
+        Assertions.assertThat(adminRole.getPermissions())
+                .extracting(PermissionResponse::getName)
+                .containsExactlyInAnyOrder("READ_DATA", "WRITE_DATA");
+        Assertions.assertThat(page.getItems().get(1).getRoles())
+                .extracting(RoleResponse::getName)
+                .containsExactly("USER");
+        Assertions.assertThat(page.getItems().get(1).isNoPassword()).isTrue();
+    }
+
+    @Test
+    void getAllUsers_pageSizeCapped() {
+        // WHEN
+        var page = userService.getAllUsers(null, 10_000, null, null);
+
+        // THEN
+        Assertions.assertThat(page.getItems()).hasSize(9);
+    }
+
+    @Test
+    void getAllUsers_malformedCursor_throwsException() {
+        // WHEN & THEN
+        var exception = assertThrows(AppException.class, () -> userService.getAllUsers("***", 10, null, null));
+        Assertions.assertThat(exception.getErrorCode().getCode()).isEqualTo(1011);
+    }
+}
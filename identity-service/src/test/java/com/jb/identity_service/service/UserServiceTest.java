@@ -3,6 +3,7 @@ package com.jb.identity_service.service;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
@@ -16,7 +17,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 
+import com.jb.identity_service.dto.projection.UserRoleRow;
 import com.jb.identity_service.dto.request.UserCreationRequest;
+import com.jb.identity_service.dto.response.RoleResponse;
 import com.jb.identity_service.dto.response.UserResponse;
 import com.jb.identity_service.entity.User;
 import com.jb.identity_service.exception.AppException;
@@ -24,7 +27,7 @@ import com.jb.identity_service.repository.RoleRepository;
 import com.jb.identity_service.repository.UserRepository;
 
 @SpringBootTest
-@TestPropertySource("/test.properties")
+@TestPropertySource(value = "/test.properties", properties = "spring.jpa.hibernate.ddl-auto=create-drop")
 public class UserServiceTest {
     @Autowired
     private UserService userService;
@@ -104,8 +107,9 @@ public class UserServiceTest {
     @WithMockUser(username = "testuser")
     void getMyInfo_userExists_returnsUserResponse() {
         // GIVEN
-        Mockito.when(userRepository.findByUsername(ArgumentMatchers.anyString()))
-                .thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findRowsByUsername(ArgumentMatchers.anyString()))
+                .thenReturn(List.of(new UserRoleRow(
+                        "12345", "testuser", "Test", "User", dateOfBirth, true, "USER", null, null, null)));
         // WHEN
         UserResponse response = userService.getMyInfo();
         // THEN
@@ -114,14 +118,18 @@ public class UserServiceTest {
         Assertions.assertThat(response.getFirstName()).isEqualTo("Test");
         Assertions.assertThat(response.getLastName()).isEqualTo("User");
         Assertions.assertThat(response.getDateOfBirth()).isEqualTo(dateOfBirth);
+        Assertions.assertThat(response.isNoPassword()).isTrue();
+        Assertions.assertThat(response.getRoles())
+                .extracting(RoleResponse::getName)
+                .containsExactly("USER");
     }
 
     @Test
     @WithMockUser(username = "testuser")
     void getMyInfo_userNotFound_throwsException() {
         // GIVEN
-        Mockito.when(userRepository.findByUsername(ArgumentMatchers.anyString()))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.findRowsByUsername(ArgumentMatchers.anyString()))
+                .thenReturn(List.of());
 
         // WHEN & THEN
         var exception = assertThrows(AppException.class, () -> {
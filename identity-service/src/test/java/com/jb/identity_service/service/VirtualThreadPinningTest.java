@@ -0,0 +1,147 @@
+package com.jb.identity_service.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.jb.identity_service.dto.request.AuthenticationRequest;
+import com.jb.identity_service.entity.Role;
+import com.jb.identity_service.entity.User;
+import com.jb.identity_service.repository.RoleRepository;
+import com.jb.identity_service.repository.UserRepository;
+import com.jb.identity_service.support.GoogleStubServer;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Runs the login paths on virtual threads while JFR records every {@code jdk.VirtualThreadPinned} event. The
+ * Hikari pool is kept smaller than the number of callers so connection waits park too.
+ */
+@SpringBootTest
+@TestPropertySource(
+        value = "/test.properties",
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "spring.datasource.hikari.maximum-pool-size=2",
+            "security.password-hashing.bcrypt-strength=4",
+            "security.login-throttle.enabled=false"
+        })
+public class VirtualThreadPinningTest {
+    private static final int CALLERS = 32;
+    private static final GoogleStubServer GOOGLE = startGoogleStub();
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private static GoogleStubServer startGoogleStub() {
+        try {
+            return new GoogleStubServer(Duration.ofMillis(20));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void googleUrls(DynamicPropertyRegistry registry) {
+        registry.add("outbound.identity.token-url", GOOGLE::baseUrl);
+        registry.add("outbound.identity.userinfo-url", GOOGLE::baseUrl);
+    }
+
+    @AfterAll
+    static void stopGoogleStub() {
+        GOOGLE.close();
+    }
+
+    @BeforeEach
+    void initData() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        roleRepository.save(Role.builder().name("USER").build());
+        userRepository.save(User.builder()
+                .username("password-user")
+                .password(passwordEncoder.encode("password123"))
+                .build());
+    }
+
+    private void runLogins(String round) throws Exception {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = IntStream.range(0, CALLERS)
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                        if (i % 2 == 0) {
+                            authenticationService.outboundAuthentication(round + "-google-" + i);
+                        } else {
+                            authenticationService.isAuthenticated(
+                                    AuthenticationRequest.builder()
+                                            .username("password-user")
+                                            .password("password123")
+                                            .build(),
+                                    null);
+                        }
+                        return null;
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    @Test
+    void logins_onVirtualThreads_noPinningOutsideTestDatabase() throws Exception {
+        // GIVEN class loading and first-use initialization happen outside the recording
+        runLogins("warmup");
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+
+        // WHEN
+        try (var recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withoutThreshold().withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+            runLogins("recorded");
+            recording.stop();
+        }
+
+        // THEN H2 synchronizes internally and only backs the tests; anything else would pin in production too
+        List<String> pinnedStacks = pinned.stream()
+                .map(VirtualThreadPinningTest::describe)
+                .filter(stack -> !stack.contains("org.h2."))
+                .toList();
+        Assertions.assertThat(pinnedStacks).isEmpty();
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n  at ", "pinned:\n  at ", ""));
+    }
+}
@@ -0,0 +1,174 @@
+package com.jb.identity_service.support;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for Google's token, userinfo and JWKS endpoints. The authorization code becomes the access token,
+ * and the access token becomes the user's email, so distinct codes log in distinct users. The token response
+ * carries an RS256 {@code id_token} for the same user unless {@link #setIssueIdTokens} turns it off. Emails are
+ * reported as verified unless {@link #setEmailVerified} says otherwise.
+ */
+public class GoogleStubServer implements AutoCloseable {
+    static {
+        // Without it Nagle's algorithm holds each response body for the client's delayed ACK (~40 ms)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private volatile Duration latency;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final RSAKey signingKey;
+    private volatile boolean issueIdTokens = true;
+    private volatile boolean emailVerified = true;
+
+    public GoogleStubServer(Duration latency) throws IOException {
+        this.latency = latency;
+        try {
+            signingKey = new RSAKeyGenerator(2048).keyID("stub-key").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/token", exchange -> {
+            var params = params(exchange);
+            String code = params.getOrDefault("code", "");
+            String clientId = params.getOrDefault("client_id", params.get("clientId"));
+            String idToken = issueIdTokens ? ",\"id_token\":\"" + idToken(code, clientId) + "\"" : "";
+            respond(
+                    exchange,
+                    "{\"access_token\":\"" + code + "\",\"expires_in\":3599,\"token_type\":\"Bearer\"" + idToken + "}");
+        });
+        server.createContext(
+                "/oauth2/v3/certs", exchange -> respond(exchange, new JWKSet(signingKey.toPublicJWK()).toString()));
+        server.createContext("/oauth2/v1/userinfo", exchange -> {
+            String email = params(exchange).getOrDefault("access_token", "") + "@example.com";
+            respond(exchange, "{\"id\":\"1\",\"email\":\"" + email + "\",\"verified_email\":" + emailVerified + "}");
+        });
+        server.start();
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setIssueIdTokens(boolean issueIdTokens) {
+        this.issueIdTokens = issueIdTokens;
+    }
+
+    /** Whether id_tokens and userinfo report the user's email as verified by Google. */
+    public void setEmailVerified(boolean emailVerified) {
+        this.emailVerified = emailVerified;
+    }
+
+    public int requestCount(String path) {
+        return requestCounts.getOrDefault(path, new AtomicInteger()).get();
+    }
+
+    public void resetCounts() {
+        requestCounts.clear();
+        maxInFlight.set(0);
+    }
+
+    public String idToken(String code, String audience) {
+        try {
+            var jwt = new SignedJWT(
+                    new JWSHeader.Builder(JWSAlgorithm.RS256)
+                            .keyID(signingKey.getKeyID())
+                            .build(),
+                    new JWTClaimsSet.Builder()
+                            .issuer("https://accounts.google.com")
+                            .audience(audience)
+                            .subject(code)
+                            .claim("email", code + "@example.com")
+                            .claim("email_verified", emailVerified)
+                            .claim("given_name", "Stub")
+                            .claim("family_name", "User")
+                            .issueTime(new Date())
+                            .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                            .build());
+            jwt.sign(new RSASSASigner(signingKey));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /** Highest number of requests the stub was serving at the same time. */
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        requestCounts
+                .computeIfAbsent(exchange.getHttpContext().getPath(), path -> new AtomicInteger())
+                .incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(latency);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /** Parameters from the query string and a form-encoded body; Feign sends the token request as a form. */
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        for (String encoded : new String[] {exchange.getRequestURI().getRawQuery(), body}) {
+            if (encoded == null || encoded.isEmpty()) {
+                continue;
+            }
+            for (String pair : encoded.split("&")) {
+                int separator = pair.indexOf('=');
+                if (separator > 0) {
+                    params.putIfAbsent(
+                            URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}